@@ -0,0 +1,56 @@
+package com.qa.nal;
+
+import com.qa.nal.utils.ApiClient.ApiResult;
+import com.qa.nal.utils.ApiSweep;
+import com.qa.nal.utils.LatencyRecorder;
+import com.qa.nal.utils.Tenant;
+import com.qa.nal.utils.TenantRegistry;
+import java.util.*;
+import org.slf4j.*;
+
+// Browser-free API health gate: mvn test-compile exec:java@api-sweep -Dtenants=bsc-dev -Dsweep.concurrency=16
+// Read-only unless -Dsweep.writes=true, which adds caseobject/create (one new service request per call and round)
+public class ApiSweepRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiSweepRunner.class);
+
+    public static void main(String[] args) throws Exception {
+        String names = System.getProperty("tenants");
+        List<Tenant> tenants = names == null ? List.of(TenantRegistry.current()) : TenantRegistry.select(names);
+        int concurrency = Integer.getInteger("sweep.concurrency", 16);
+        int rounds = Integer.getInteger("sweep.rounds", 1);
+
+        boolean failed = false;
+        long start = System.currentTimeMillis();
+
+        for (Tenant tenant : tenants) {
+            List<ApiResult> results = ApiSweep.run(tenant, ApiSweep.contractCalls(tenant), rounds, concurrency);
+            for (ApiResult result : results) {
+                LatencyRecorder.global().record(tenant.name(), result.call().name(), result.nanos(), result.ok());
+                if (result.ok()) {
+                    log.info(
+                            "✅ Tenant: {} | API: {} | Status: {} | Time: {}s",
+                            tenant,
+                            result.call().name(),
+                            result.status(),
+                            result.nanos() / 1_000_000_000.0);
+                } else {
+                    log.error(
+                            "❌ Tenant: {} | API: {} | Status: {} | Error: {}",
+                            tenant,
+                            result.call().name(),
+                            result.status(),
+                            result.error() != null ? result.error() : result.body());
+                    failed = true;
+                }
+            }
+        }
+
+        log.info(
+                "API sweep finished in {}s{}",
+                (System.currentTimeMillis() - start) / 1000.0,
+                LatencyRecorder.global().percentileTable());
+        LatencyRecorder.global().write(LatencyRecorder.REPORT_DIR, "api-sweep-latency");
+        System.exit(failed ? 1 : 0);
+    }
+}
@@ -1,10 +1,37 @@
 package com.qa.nal;
 
 import com.microsoft.playwright.*;
+import com.qa.nal.utils.AuthStateCache;
+import com.qa.nal.utils.BackendMock;
+import com.qa.nal.utils.BrowserPool;
+import com.qa.nal.utils.ExecutionProfile;
+import com.qa.nal.utils.FailureCapture;
+import com.qa.nal.utils.LatencyRecorder;
+import com.qa.nal.utils.NavigationMetrics;
+import com.qa.nal.utils.NetworkRouter;
+import com.qa.nal.utils.RetryPolicy;
+import com.qa.nal.utils.Spans;
+import com.qa.nal.utils.Tenant;
+import com.qa.nal.utils.TenantRegistry;
+import com.qa.nal.utils.Waits;
+import java.nio.file.Path;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.*;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
-public abstract class BaseTest {
+@ExtendWith(FailureCapture.class)
+public abstract class BaseTest implements FailureCapture.Source {
+
+    private static final Logger log = LoggerFactory.getLogger(BaseTest.class);
+
+    // ✅ Resolved per thread so TenantMatrixRunner can run several tenants side by side
+    protected final Tenant tenant = TenantRegistry.current();
+
+    protected final ExecutionProfile profile = ExecutionProfile.current();
+
+    // ✅ Exclusive use of one pooled browser for the lifetime of this test class
+    protected BrowserPool.Lease lease;
 
     protected Playwright pw;
     protected Browser browser;
@@ -13,20 +40,100 @@ public abstract class BaseTest {
 
     protected APIRequestContext apiRequest; // ✅ API context
 
+    // ✅ Null when routing is disabled (debug profile or -Dnetwork.router=false)
+    protected NetworkRouter router;
+
+    private Spans.Span testSpan;
+
+    // ✅ True when the context starts from a cached, still valid login
+    protected boolean restoredSession;
+
     @BeforeAll
     void initAll() {
-        pw = Playwright.create();
-        browser = pw.chromium().launch(new BrowserType.LaunchOptions().setHeadless(false).setSlowMo(50));
-        context = browser.newContext();
-        page = context.newPage();
+        lease = BrowserPool.shared().acquire();
+        pw = lease.playwright();
+        browser = lease.browser();
+
+        restoredSession = AuthStateCache.validState(tenant) != null;
+        router = NetworkRouter.enabled() ? new NetworkRouter(tenant) : null;
+        context = newIsolatedContext();
+        // ✅ Debug keeps one trace for the whole class; otherwise only failing tests keep theirs
+        if (profile.tracing()) {
+            profile.startTracing(context);
+        } else {
+            FailureCapture.startTracing(context);
+        }
+        page = Spans.trace(context.newPage());
 
-        page.setDefaultTimeout(45000);
+        profile.apply(page);
         page.onDialog(Dialog::accept);
 
         // ✅ Create shared API request context
         apiRequest = pw.request().newContext();
     }
 
+    // ✅ One span per test, with step() markers and Playwright calls nested inside
+    @BeforeEach
+    void openTestSpan(TestInfo testInfo) {
+        String name = testInfo.getTestMethod().map(m -> m.getName()).orElse(testInfo.getDisplayName());
+        testSpan = Spans.open(name, "test").arg("tenant", tenant.name());
+    }
+
+    @AfterEach
+    void closeTestSpan() {
+        if (testSpan != null) {
+            testSpan.close();
+        }
+    }
+
+    // Fresh context on the leased browser, logged in from the auth state cache when possible
+    protected BrowserContext newIsolatedContext() {
+        Browser.NewContextOptions contextOptions = profile.contextOptions();
+        Path authState = AuthStateCache.validState(tenant);
+        if (authState != null) {
+            contextOptions.setStorageStatePath(authState);
+        }
+        BrowserContext isolated = lease.newContext(contextOptions);
+        if (router != null) {
+            router.attach(isolated);
+        }
+        // ✅ Registered after the router so backend fixtures win over its rules
+        BackendMock.attach(tenant, isolated);
+        NavigationMetrics.install(
+                isolated,
+                router != null
+                        ? "routed"
+                        : BackendMock.mode() == BackendMock.Mode.REPLAY ? "mocked" : NavigationMetrics.LIVE);
+
+        // ✅ Server rejected the session: drop the cache so the next context logs in again
+        isolated.onResponse(response -> {
+            if (response.status() == 401 && response.url().startsWith(tenant.baseUrl())) {
+                AuthStateCache.invalidate(tenant);
+            }
+        });
+        return isolated;
+    }
+
+    @Override
+    public Tenant tenant() {
+        return tenant;
+    }
+
+    @Override
+    public BrowserContext captureContext() {
+        return context;
+    }
+
+    @Override
+    public Page capturePage() {
+        return page;
+    }
+
+    // Persist the authenticated context so later contexts and workers skip the UI login
+    protected void saveAuthState() {
+        AuthStateCache.save(tenant, context);
+    }
+
     @AfterAll
     void tearDownAll() {
         // ✅ Dispose API context first
@@ -34,7 +141,31 @@ public abstract class BaseTest {
             apiRequest.dispose();
         }
 
-        browser.close();
-        pw.close();
+        if (context != null) {
+            profile.stopTracing(context, tenant.name() + "-" + getClass().getSimpleName());
+            FailureCapture.forget(context);
+        }
+
+        // ✅ Closes this class's contexts and hands the warm browser back to the pool
+        if (lease != null) {
+            lease.close();
+        }
+
+        if (BackendMock.mode() == BackendMock.Mode.RECORD) {
+            BackendMock.flush();
+        }
+
+        log.info(Waits.report());
+        log.info(RetryPolicy.report());
+        RetryPolicy.write(RetryPolicy.REPORT_DIR.resolve("retry-metrics.json"));
+        if (router != null) {
+            log.info("Network routing:{}", router.report());
+        }
+
+        // ✅ Cumulative for the JVM, so the last class to finish writes the complete report
+        if (!LatencyRecorder.global().isEmpty()) {
+            log.info("API latency:{}", LatencyRecorder.global().percentileTable());
+            LatencyRecorder.global().write(LatencyRecorder.REPORT_DIR, "api-latency");
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.qa.nal;
+
+import com.qa.nal.utils.BrowserPool;
+import com.qa.nal.utils.DependencyScheduler;
+import com.qa.nal.utils.DependencyScheduler.BranchResult;
+import com.qa.nal.utils.TenantRegistry;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import org.slf4j.*;
+
+// Runs DiagnosticTests as independent branches (SR flow, Observation/Inference/Multimedia management, Inbox, ...)
+// built from @Requires/@Provides, instead of one 36-step @Order chain.
+// mvn test-compile exec:java@dependency-graph -Dtenant=bsc-dev -Dscheduler.workers=4
+public class DependencyRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DependencyRunner.class);
+
+    public static void main(String[] args) {
+        int workers = Integer.getInteger("scheduler.workers", BrowserPool.shared().size());
+        Path reportDir = Paths.get("target", "dependency-reports", TenantRegistry.current().name());
+        long start = System.currentTimeMillis();
+
+        BrowserPool.shared().warmUp(workers);
+        List<BranchResult> results = DependencyScheduler.run(DiagnosticTests.class, reportDir, workers);
+
+        boolean failed = false;
+        for (BranchResult result : results) {
+            long duration = result.summary().getTimeFinished() - result.summary().getTimeStarted();
+            log.info(
+                    "{} Branch: {} | Tests: {} | Failed: {} | Time: {}s",
+                    result.summary().getTotalFailureCount() == 0 ? "✅" : "❌",
+                    result.branch().name(),
+                    result.summary().getTestsFoundCount(),
+                    result.summary().getTotalFailureCount(),
+                    duration / 1000.0);
+            failed |= result.summary().getTotalFailureCount() > 0;
+        }
+
+        log.info("Dependency run finished in {}s", (System.currentTimeMillis() - start) / 1000.0);
+        System.exit(failed ? 1 : 0);
+    }
+}
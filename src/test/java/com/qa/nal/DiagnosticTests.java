@@ -2,8 +2,20 @@ package com.qa.nal;
 
 import com.microsoft.playwright.*;
 import com.microsoft.playwright.options.*;
-import com.qa.nal.utils.ExcelReader;
-import io.github.cdimascio.dotenv.Dotenv;
+import com.qa.nal.utils.ApiClient;
+import com.qa.nal.utils.BackendMock;
+import com.qa.nal.utils.DomSnapshot;
+import com.qa.nal.utils.LatencyRecorder;
+import com.qa.nal.utils.LocatorRegistry;
+import com.qa.nal.utils.NavigationMetrics;
+import com.qa.nal.utils.Provides;
+import com.qa.nal.utils.Requires;
+import com.qa.nal.utils.RetryPolicy;
+import com.qa.nal.utils.ServiceRequestFixture;
+import com.qa.nal.utils.Spans;
+import com.qa.nal.utils.TestDataRepository;
+import com.qa.nal.utils.TokenBroker;
+import com.qa.nal.utils.Waits;
 import io.qase.commons.annotation.*;
 import java.nio.file.*;
 import java.util.*;
@@ -18,85 +30,36 @@ public class DiagnosticTests extends BaseTest {
 
     private static final Logger log = LoggerFactory.getLogger(DiagnosticTests.class);
 
-    Dotenv dotenv = Dotenv.load();
-    private final String username = dotenv.get("USERNAME_BSC");
-    private final String password = dotenv.get("PASSWORD_BSC");
-    private final String loginUrl = dotenv.get("BSC_DEV");
-    private final String baseUrl = loginUrl + ":8889";
-    private final String environment = "bsc-dev";
-
-    private Locator findFirstVisibleLocator(List<Locator> locators) {
-        for (Locator locator : locators) {
-            if (locator.isVisible()) {
-                return locator;
-            }
-        }
-        return null;
-    }
+    private final String username = tenant.username();
+    private final String password = tenant.password();
+    private final String loginUrl = tenant.loginUrl();
+    private final String baseUrl = BackendMock.apiBaseUrl(tenant);
 
-    private String authToken = "";
+    private final LocatorRegistry locators = new LocatorRegistry(tenant);
 
     // ==================== API Utilities ===========================
 
-    // Generate authentication token
-    private void generateAuthToken() {
-        try {
-            if (username == null || password == null) {
-                throw new IllegalStateException("USERNAME or PASSWORD not found in .env file");
-            }
-
-            String loginPayload = String.format("{\"userName\": \"%s\", \"password\": \"%s\"}", username, password);
-
-            APIResponse response = apiRequest.post(
-                    baseUrl + "/security/user/authenticate",
-                    RequestOptions.create().setHeader("Content-Type", "application/json").setData(loginPayload));
-
-            int status = response.status();
-            if (status >= 200 && status < 300) {
-                String token = response.headers().get("authorization"); // Try header first
-
-                if (token == null || token.isEmpty()) {
-                    JSONObject json = new JSONObject(response.text());
-                    token = json.optString("token", json.optString("jwtToken", ""));
-                }
-
-                if (token != null && !token.isEmpty()) {
-                    authToken = "Bearer " + token;
-                    log.info("✅ Auth token generated");
-                } else {
-                    log.error("⚠️ Auth token not found. Body: {}", response.text());
-                }
-            } else {
-                log.error("❌ Failed to authenticate. Status: {} | Body: {}", status, response.text());
-            }
-        } catch (Exception e) {
-            log.error("❌ Error generating auth token: {}", e.getMessage());
-        }
-    }
-
     // Validate API status
     private void validateApiStatus(String endpoint, String method, String bodyJson) {
         String fullUrl = baseUrl + (endpoint.startsWith("/") ? endpoint : "/" + endpoint);
-        String apiName = endpoint.substring(endpoint.lastIndexOf('/') + 1);
+        // Same key as ApiSweep, also for endpoints with a trailing slash
+        String apiName = new ApiClient.ApiCall(method, endpoint, bodyJson).name();
+        long start = 0;
+        boolean recorded = false;
 
         try {
-            if (!endpoint.contains("/authenticate") && (authToken == null || authToken.isEmpty())) {
-                generateAuthToken();
-            }
+            // ✅ Token comes from the shared broker, outside the timed section
+            String authToken = TokenBroker.token(tenant);
 
-            RequestOptions requestOptions = RequestOptions.create()
-                    .setHeader("Authorization", authToken)
-                    .setHeader("Accept", "application/json")
-                    .setHeader("Content-Type", "application/json")
-                    .setHeader("n7-client-locale", "en")
-                    .setHeader("n7-client-type", "web");
+            RequestOptions requestOptions = RequestOptions.create();
+            ApiClient.headers(authToken).forEach(requestOptions::setHeader);
 
             if (bodyJson != null && !bodyJson.isEmpty()) {
                 requestOptions.setData(bodyJson);
             }
 
             APIResponse response;
-            long start = System.currentTimeMillis();
+            start = System.nanoTime();
 
             switch (method.toUpperCase()) {
                 case "GET":
@@ -115,18 +78,38 @@ public class DiagnosticTests extends BaseTest {
                     throw new IllegalArgumentException("Unsupported HTTP method: " + method);
             }
 
-            long end = System.currentTimeMillis();
-            double duration = (end - start) / 1000.0;
+            long elapsed = System.nanoTime() - start;
+            double duration = elapsed / 1_000_000_000.0;
             int status = response.status();
 
+            LatencyRecorder.global().record(tenant.name(), apiName, elapsed, status >= 200 && status < 300);
+            recorded = true;
+            BackendMock.record(
+                    tenant,
+                    method.toUpperCase(),
+                    ApiClient.path(endpoint),
+                    bodyJson,
+                    status,
+                    null,
+                    response.text(),
+                    elapsed);
+
             log.info("✅ API: {} | Status: {} | Time: {}s", apiName, status, duration);
             log.debug("Response Body: {}", response.text());
 
+            if (status == 401) {
+                TokenBroker.invalidate(tenant);
+            }
+
             // ✅ Perform assertion internally
             Assertions.assertTrue(
                     status >= 200 && status < 300,
                     String.format("❌ API failed: %s | Status: %d | Body: %s", apiName, status, response.text()));
         } catch (Exception e) {
+            // ✅ The request went out but never got a response: an error in the latency report too
+            if (start != 0 && !recorded) {
+                LatencyRecorder.global().record(tenant.name(), apiName, System.nanoTime() - start, false);
+            }
             log.error("❌ Exception during API call '{}': {}", apiName, e.getMessage(), e);
             Assertions.fail("❌ Exception in validateApiStatus: " + e.getMessage());
         }
@@ -137,17 +120,33 @@ public class DiagnosticTests extends BaseTest {
         validateApiStatus(endpoint, method, null);
     }
 
+    // ✅ Frontend timings for the route just opened; fails the test when a perf-thresholds budget is exceeded
+    private void checkNavigationPerformance(String pageName) {
+        NavigationMetrics.Metrics metrics = NavigationMetrics.capture(page, tenant, pageName);
+        List<String> violations = NavigationMetrics.violations(metrics);
+        Assertions.assertTrue(
+                violations.isEmpty(),
+                String.format("❌ Performance budget exceeded on %s: %s", pageName, violations));
+    }
+
     // ==================== TEST CASES ===========================
 
     @Test
     @Order(1)
     @QaseId(1)
     @QaseTitle("Navigate to Login Page")
+    @Provides("login-page")
     public void navigateToLoginPage() {
         try {
             page.navigate(loginUrl, new Page.NavigateOptions().setWaitUntil(WaitUntilState.LOAD));
-            page.waitForURL(url -> url.contains("login"));
-            Assertions.assertTrue(page.url().contains("login"), "Not redirected to login page");
+            page.waitForURL(url -> url.contains("login") || (restoredSession && url.contains("/app/new-home")));
+
+            if (page.url().contains("/app/new-home")) {
+                log.info("Session restored from auth state cache, login page skipped");
+            } else {
+                restoredSession = false;
+                Assertions.assertTrue(page.url().contains("login"), "Not redirected to login page");
+            }
 
             // UI API Verification
             validateApiStatus("/api/v1/config/ui", "GET");
@@ -162,11 +161,15 @@ public class DiagnosticTests extends BaseTest {
     @Order(2)
     @QaseId(2)
     @QaseTitle("Perform Login")
+    @Requires("login-page")
+    @Provides("session")
     public void performLogin() {
         try {
             Locator usernameInput = page.getByRole(AriaRole.TEXTBOX, new Page.GetByRoleOptions().setName("Username"));
 
-            if (usernameInput.isVisible()) {
+            if (restoredSession) {
+                log.info("Already authenticated from cached auth state");
+            } else if (usernameInput.isVisible()) {
                 page.getByRole(AriaRole.TEXTBOX, new Page.GetByRoleOptions().setName("Username")).click();
                 log.info("Username field clicked");
 
@@ -199,7 +202,7 @@ public class DiagnosticTests extends BaseTest {
                 }
             } else {
                 page.getByRole(AriaRole.BUTTON, new Page.GetByRoleOptions().setName("Login with N7MICROSOFT")).click();
-                page.waitForTimeout(2000);
+                Waits.settle(page, 2000);
                 log.info("Login with N7MICROSOFT  button clicked");
 
                 page.waitForSelector(
@@ -213,52 +216,55 @@ public class DiagnosticTests extends BaseTest {
                 page
                         .getByRole(AriaRole.TEXTBOX, new Page.GetByRoleOptions().setName("Enter your email, phone, or"))
                         .click();
-                page.waitForTimeout(750);
+                Waits.settle(page, 750);
 
                 page
                         .getByRole(AriaRole.TEXTBOX, new Page.GetByRoleOptions().setName("Enter your email, phone, or"))
                         .fill(username);
-                page.waitForTimeout(750);
+                Waits.settle(page, 750);
 
                 page.getByRole(AriaRole.BUTTON, new Page.GetByRoleOptions().setName("Next")).click();
-                page.waitForTimeout(750);
+                Waits.settle(page, 750);
 
                 page
                         .getByRole(
                                 AriaRole.TEXTBOX,
                                 new Page.GetByRoleOptions().setName(Pattern.compile("^Enter the password for .*")))
                         .click();
-                page.waitForTimeout(750);
+                Waits.settle(page, 750);
 
                 page
                         .getByRole(
                                 AriaRole.TEXTBOX,
                                 new Page.GetByRoleOptions().setName(Pattern.compile("^Enter the password for .*")))
                         .fill(password);
-                page.waitForTimeout(750);
+                Waits.settle(page, 750);
 
                 page.getByRole(AriaRole.BUTTON, new Page.GetByRoleOptions().setName("Sign in")).click();
-                page.waitForTimeout(750);
+                Waits.settle(page, 750);
 
                 page.getByRole(AriaRole.CHECKBOX, new Page.GetByRoleOptions().setName("Don't show this again")).check();
-                page.waitForTimeout(750);
+                Waits.settle(page, 750);
 
                 page.getByRole(AriaRole.BUTTON, new Page.GetByRoleOptions().setName("Yes")).click();
-                page.waitForTimeout(750);
+                Waits.settle(page, 750);
             }
 
             page.waitForSelector(
                     ".loading-screen-wrapper",
                     new Page.WaitForSelectorOptions().setState(WaitForSelectorState.HIDDEN));
 
-            // Authenticate API verification
-            String payload = String.format("{\"userName\": \"%s\", \"password\": \"%s\"}", username, password);
-            validateApiStatus("/security/user/authenticate", "POST", payload);
+            // Authenticate API verification (shared with every later API call through the broker)
+            Assertions.assertFalse(TokenBroker.token(tenant).isBlank(), "Authenticate API returned no token");
 
             page.waitForURL(url -> url.contains("/app/new-home"));
 
             Assertions.assertTrue(page.url().contains("new-home"), "Login did not navigate to home");
             log.info("Login successful, navigated to home page");
+
+            if (!restoredSession) {
+                saveAuthState();
+            }
         } catch (Exception e) {
             log.error("Login failed: {}", e.getMessage());
             Assertions.fail("Login failed: " + e.getMessage());
@@ -269,14 +275,16 @@ public class DiagnosticTests extends BaseTest {
     @Order(3)
     @QaseId(3)
     @QaseTitle("Handle Initial Pop-Up")
+    @Requires("session")
+    @Provides("home")
     public void handleInitialPopup() {
         try {
-            page.waitForTimeout(2000);
+            Waits.settle(page, 2000);
             if (page.locator(".modal-content").isVisible()) {
                 log.info("Modal Pop-Up found");
                 page.getByRole(AriaRole.BUTTON, new Page.GetByRoleOptions().setName("Cancel")).click();
 
-                page.waitForTimeout(2000);
+                Waits.settle(page, 2000);
                 page.waitForSelector(
                         ".loading-screen-wrapper",
                         new Page.WaitForSelectorOptions().setState(WaitForSelectorState.HIDDEN));
@@ -290,19 +298,21 @@ public class DiagnosticTests extends BaseTest {
         }
     }
 
-    static boolean referenceDataClicked = false;
+    private boolean referenceDataClicked = false;
 
     // Intelligent Diagnostics
     @Test
     @Order(4)
     @QaseId(4)
     @QaseTitle("Navigate to Intelligent Diagnostics")
+    @Requires("home")
+    @Provides("intelligent-diagnostics")
     public void navigateToIntelligentDiagnostics() {
         try {
             page.locator("body > app > default-layout > div > aside > div.sidebar.collapsed").hover();
             log.info("Sidebar hovered");
 
-            page.waitForTimeout(2000);
+            Waits.settle(page, 2000);
 
             Locator diagnosticsSidebar = page
                     .locator("a")
@@ -327,6 +337,8 @@ public class DiagnosticTests extends BaseTest {
     @Order(5)
     @QaseId(5)
     @QaseTitle("Navigate to Service Request")
+    @Requires("intelligent-diagnostics")
+    @Provides("sr-list")
     public void navigateToServiceRequest() {
         try {
             if (!referenceDataClicked) {
@@ -351,15 +363,25 @@ public class DiagnosticTests extends BaseTest {
         }
     }
 
-    public static String payLoad = "";
+    private String payLoad = "";
 
     @Test
     @Order(6)
     @QaseId(6)
     @QaseTitle("Create Service Request")
+    @Requires("sr-list")
+    @Provides("sr-open")
     public void createNewServiceRequest() {
         try {
-            boolean textAreaFound = false;
+            if (ServiceRequestFixture.enabled()) {
+                if (ServiceRequestFixture.route(tenant) != null) {
+                    openSeededServiceRequest();
+                    return;
+                }
+                log.info("No SR route learned for {} yet, creating through the modal once", tenant);
+            }
+
+            Spans.step("open Create New modal");
             page.getByRole(AriaRole.BUTTON, new Page.GetByRoleOptions().setName("  Create New")).click();
             log.info("Create New button clicked");
 
@@ -369,56 +391,23 @@ public class DiagnosticTests extends BaseTest {
             validateApiStatus("/data/caseobject/v2/getattributes", "GET", payload);
 
             page.waitForSelector("#modalCenter > div > div", new Page.WaitForSelectorOptions().setTimeout(45000));
-            page.waitForTimeout(3500);
+            Waits.settle(page, 3500);
             log.info("Create New modal opened");
 
             // --- Picklist input selection with fallback ---
-            Locator visibleModel = null;
-
-            // First try ng-select input (excluding English/Language)
-            List<Locator> ngInputs = page.locator("ng-select input[type='text']").all();
-            for (Locator input : ngInputs) {
-                if (input.isVisible()) {
-                    String context = input.locator("xpath=ancestor::ng-select").textContent().trim();
-                    if (!context.contains("English") && !context.contains("Language")) {
-                        visibleModel = input;
-                        textAreaFound = false;
-                        break;
-                    }
-                }
+            Spans.step("fill picklist");
+            // ng-select input (excluding English/Language), else the plain textarea
+            LocatorRegistry.Resolution picklist = locators.resolve(page, LocatorRegistry.SR_PICKLIST, 0);
+            Assertions.assertNotNull(picklist, "No valid picklist input found");
+            Locator visibleModel = picklist.locator();
+            boolean textAreaFound = picklist.candidate() > 0;
+            if (textAreaFound) {
+                log.info("Fallback: textarea[type='text'] used for picklist");
             }
-
-            // Fallback: try textarea[type='text'] if ng-select input is not found
-            if (visibleModel == null) {
-                Locator fallbackTextarea = page.locator(
-                        "div.form-group textarea[type='text']:not([name='ALARM']):not([name='MAKE']):not([name='TYPE']):not([name='DESCRIPTION'])");
-                if (fallbackTextarea.isVisible()) {
-                    visibleModel = fallbackTextarea;
-                    log.info("Fallback: textarea[type='text'] used for picklist");
-                    textAreaFound = true;
-                }
-            }
-
-            Assertions.assertNotNull(visibleModel, "No valid picklist input found");
             visibleModel.click();
             log.info("Picklist input clicked");
 
-            String searchValue = switch (environment) {
-                case "accuray-dev" -> "CYBER";
-                case "ni-dev" -> "DAQ";
-                case "swisslog-dev" -> "BLOW";
-                case "keysight-dev" -> "N9042B";
-                case "terumo-dev" -> "REVEOS";
-                case "dev6" -> "pc cor";
-                case "626-dev" -> "SYMPH";
-                case "ciena-poc" -> "BLUE";
-                case "crane1-dev" -> "Gorb";
-                case "bsc-dev" -> "Farapulse";
-                case "tke-dev" -> "TKE:TAC32H";
-                case "medtronic-dev" -> "O-Arm";
-                case "burroughs-dev" -> "Burroughs:ATM";
-                default -> null;
-            };
+            String searchValue = tenant.modelSearch();
 
             if (searchValue != null) {
                 visibleModel.fill(searchValue);
@@ -427,22 +416,23 @@ public class DiagnosticTests extends BaseTest {
                 visibleModel.click();
             }
 
-            page.waitForTimeout(1500);
+            Waits.settle(page, 1500);
 
             String selectedModel = "";
 
             if (!textAreaFound) {
+                Spans.step("wait for options");
                 page.waitForSelector(
                         "//ng-dropdown-panel//div[@role='option']",
                         new Page.WaitForSelectorOptions().setState(WaitForSelectorState.VISIBLE).setTimeout(15000));
 
-                List<Locator> options = page.locator("//ng-dropdown-panel//div[@role='option']").all();
+                DomSnapshot.Snapshot options = DomSnapshot.of(page, "//ng-dropdown-panel//div[@role='option']");
                 log.info("Options found: {}", options.size());
 
                 if (!options.isEmpty()) {
-                    int randomIndex = new Random().nextInt(options.size());
-                    selectedModel = options.get(randomIndex).textContent().trim();
-                    options.get(randomIndex).click();
+                    DomSnapshot.Node option = options.random(new Random());
+                    selectedModel = option.text();
+                    options.click(option);
                     log.info("Option selected: {}", selectedModel);
                 } else {
                     log.error("No options found in the picklist");
@@ -452,31 +442,17 @@ public class DiagnosticTests extends BaseTest {
                 log.info("Using textarea for picklist selection, no options to select");
             }
             // --- Description field handling with fallback ---
-            Locator visibleDescription = null;
-
-            // Try modern/structured textarea first
-            Locator structuredDescription = page.locator(
-                    "div.form-group div.custom-textarea-wrapper textarea.text-area[type='text']:not([name='ALARM']):not([name='MAKE']):not([name='TYPE']):not([name='MODEL'])");
-            if (structuredDescription.isVisible()) {
-                visibleDescription = structuredDescription;
-                log.info("Using structured textarea (.custom-textarea-wrapper) for description");
-            }
-
-            // Fallback to simple textarea
-            if (visibleDescription == null) {
-                Locator simpleDescription = page.locator(
-                        "div.form-group textarea[type='text']:not([name='ALARM']):not([name='MAKE']):not([name='TYPE']):not([name='MODEL'])");
-                if (simpleDescription.isVisible()) {
-                    visibleDescription = simpleDescription;
-                    log.info("Fallback: using simple textarea for description");
-                }
-            }
-
-            Assertions.assertNotNull(visibleDescription, "No visible description field found");
-
-            List<String> descriptions = ExcelReader.readDescriptionsFromExcel(
-                    "src/test/resources/srDescriptions.xlsx",
-                    "devdemo");
+            Spans.step("fill description");
+            // Structured textarea (.custom-textarea-wrapper) first, else the simple textarea
+            LocatorRegistry.Resolution description = locators.resolve(page, LocatorRegistry.SR_DESCRIPTION, 0);
+            Assertions.assertNotNull(description, "No visible description field found");
+            Locator visibleDescription = description.locator();
+            log.info(
+                    description.candidate() == 0
+                            ? "Using structured textarea (.custom-textarea-wrapper) for description"
+                            : "Fallback: using simple textarea for description");
+
+            List<String> descriptions = TestDataRepository.descriptions(TestDataRepository.SR_DESCRIPTIONS, "devdemo");
             log.info("Descriptions List size: {}", descriptions.size());
 
             int randomIndex = new Random().nextInt(descriptions.size());
@@ -519,8 +495,14 @@ public class DiagnosticTests extends BaseTest {
             }
 
             // --- Finalize and Submit ---
-            page.waitForTimeout(2000);
-            page.getByRole(AriaRole.BUTTON, new Page.GetByRoleOptions().setName("Start Diagnosis")).click();
+            Spans.step("start diagnosis");
+            Waits.settle(page, 2000);
+            // The app's own create response, so the API fixture can learn where the new id goes in the URL
+            Response created = page.waitForResponse(
+                    response -> response.url().contains("/data/caseobject/create")
+                            && "POST".equals(response.request().method()),
+                    () -> page.getByRole(AriaRole.BUTTON, new Page.GetByRoleOptions().setName("Start Diagnosis"))
+                            .click());
 
             // Create API
             payLoad = String.format(
@@ -532,8 +514,12 @@ public class DiagnosticTests extends BaseTest {
 
             page.waitForURL(url -> url.contains("n7-predictions"), new Page.WaitForURLOptions().setTimeout(15000));
             Assertions.assertTrue(page.url().contains("n7-predictions"), "Predictions page did not load as expected");
+            if (created.ok()) {
+                ServiceRequestFixture.learn(tenant, created.text(), page.url());
+            }
 
             // Top Observation API
+            Spans.step("load predictions");
             validateApiStatus("/data/micro-predict-observation/topObservation", "POST", payLoad);
 
             page.waitForSelector(
@@ -547,55 +533,53 @@ public class DiagnosticTests extends BaseTest {
         }
     }
 
-    private Boolean checkObs() {
-        boolean obsFound = false;
-        boolean defaultCardFound = false;
-        int maxAttempts = 6;
-
-        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
-            try {
-                log.info("Attempt {} to check for observation cards", attempt);
-
-                // Wait for loading screen to disappear
-                page.waitForSelector(
-                        ".loading-screen-wrapper",
-                        new Page.WaitForSelectorOptions().setState(WaitForSelectorState.HIDDEN).setTimeout(10000));
-
-                page.waitForLoadState(LoadState.NETWORKIDLE);
-
-                page.waitForTimeout(1500);
-
-                Locator obsLocator = page.locator(".observation-card");
-                int count = obsLocator.count();
-
-                log.info("Observation card count: {}", count);
-
-                if (count > 0) {
-                    for (int i = 0; i < count; i++) {
-                        String text = obsLocator.nth(i).textContent().trim();
-                        log.info("Observation[{}]: {}", i, text);
-
-                        if (!text.contains("Are you seeing something else?")) {
-                            log.info("Valid observation found: {}", text);
-                            obsFound = true;
-                            break;
-                        } else {
-                            defaultCardFound = true;
-                        }
-                    }
-                } else {
-                    log.info("No observation cards found.");
-                }
+    // ✅ API-seeded SR (-Dsr.fixture=api): skips the Create New modal and deep-links into predictions
+    private void openSeededServiceRequest() {
+        ServiceRequestFixture.SeededRequest seeded = ServiceRequestFixture.create(tenant);
+        payLoad = seeded.payload();
+
+        String deepLink = ServiceRequestFixture.deepLink(tenant, seeded);
+        page.navigate(deepLink);
+        page.waitForURL(url -> url.contains("n7-predictions"), new Page.WaitForURLOptions().setTimeout(15000));
+        Assertions.assertTrue(
+                page.url().contains("n7-predictions"), "Predictions page did not load from deep link " + deepLink);
+
+        // Top Observation API
+        validateApiStatus("/data/micro-predict-observation/topObservation", "POST", payLoad);
+
+        Assertions.assertTrue(
+                Waits.loadingHidden(page, 45000),
+                "Loading screen still visible 45s after opening seeded SR " + seeded.id() + " at " + deepLink);
+        page.waitForLoadState(LoadState.NETWORKIDLE);
+        log.info("SR {} seeded via API and opened on predictions page", seeded.id());
+    }
 
-                if (obsFound)
-                    break;
-            } catch (Exception e) {
-                log.warn("Exception on attempt {}: {}", attempt, e.getMessage());
-            }
+    private Boolean checkObs() {
+        // Polls until a real observation card shows up; the default card alone for a while means there is none
+        RetryPolicy.Outcome<List<String>> outcome = RetryPolicy.named(tenant, "checkObs")
+                .poll(
+                        () -> {
+                            if (page.locator(Waits.LOADING_SCREEN).isVisible()) {
+                                return null;
+                            }
+                            List<String> cards = DomSnapshot.of(page, ".observation-card").texts();
+                            log.info("Observation card count: {}", cards.size());
+                            return cards.isEmpty() ? null : cards;
+                        },
+                        cards -> cards.stream().anyMatch(text -> !text.contains("Are you seeing something else?")));
+
+        List<String> cards = outcome.value() == null ? List.of() : outcome.value();
+        for (int i = 0; i < cards.size(); i++) {
+            log.info("Observation[{}]: {}", i, cards.get(i));
         }
 
-        if (!obsFound && !defaultCardFound) {
-            log.error("No observation card (even default) found after {} attempts", maxAttempts);
+        boolean obsFound = outcome.ok();
+        boolean defaultCardFound = cards.stream().anyMatch(text -> text.contains("Are you seeing something else?"));
+
+        if (obsFound) {
+            log.info("Valid observation found after {} attempt(s)", outcome.attempts());
+        } else if (!defaultCardFound) {
+            log.error("No observation card (even default) found after {} attempts", outcome.attempts());
             Assertions.fail("No observation card found after multiple retries.");
         }
 
@@ -611,8 +595,8 @@ public class DiagnosticTests extends BaseTest {
             log.info("Something Else button clicked");
 
             // getting Observation Name from excel sheet
-            List<String> observationsList = ExcelReader.readDescriptionsFromExcel(
-                    "src/test/resources/InfObsNames.xlsx",
+            List<String> observationsList = TestDataRepository.descriptions(
+                    TestDataRepository.INF_OBS_NAMES,
                     "Observations");
             log.info("Observation List size: " + observationsList.size());
 
@@ -663,41 +647,21 @@ public class DiagnosticTests extends BaseTest {
     }
 
     private Boolean checkInf() {
-        Boolean infFound = false;
         try {
-            boolean newSolutionCreated = false;
-
-            page.waitForTimeout(1500);
-
-            page.waitForLoadState(LoadState.NETWORKIDLE);
+            RetryPolicy.Outcome<Integer> outcome = RetryPolicy.named(tenant, "checkInf")
+                    .poll(() -> DomSnapshot.of(page, ".resolution").visible().size(), count -> count > 0);
 
-            List<Locator> solutionList = new ArrayList<Locator>();
-            try {
-                page.waitForSelector(
-                        ".resolution",
-                        new Page.WaitForSelectorOptions().setState(WaitForSelectorState.VISIBLE).setTimeout(10000));
+            if (outcome.ok()) {
                 log.info("Inference found");
-
-                solutionList = page.locator(".resolution").all();
-            } catch (Exception e) {
-                log.error("No Inference found: {}", e.getMessage());
+                log.info("Solutions found: {}", outcome.value());
+                return true;
             }
-
-            if (!solutionList.isEmpty()) {
-                log.info("Solutions size: {}", solutionList.size());
-                infFound = true;
-                log.info("Solutions found: {}", solutionList.size());
-            } else if (!newSolutionCreated) {
-                newSolutionCreated = true;
-                log.info("No solution found!");
-                infFound = false;
-            }
-
-            return infFound;
+            log.info("No solution found!");
+            return false;
         } catch (Exception e) {
             log.error("Existing Inference not found: {}", e.getMessage());
             Assertions.fail("Existing Inference not found: " + e.getMessage());
-            return infFound;
+            return false;
         }
     }
 
@@ -723,14 +687,14 @@ public class DiagnosticTests extends BaseTest {
 
                 fileInput.setInputFiles(filePath.toAbsolutePath());
 
-                page.waitForTimeout(1000);
+                Waits.settle(page, 1000);
                 Locator assetTagInput = page.getByRole(
                         AriaRole.TEXTBOX,
                         new Page.GetByRoleOptions().setName("Please Enter At least one"));
                 assetTagInput.click();
                 log.info("found the input asset tag");
 
-                page.waitForTimeout(1000);
+                Waits.settle(page, 1000);
 
                 String inputTag = "Demo Image 1";
 
@@ -798,8 +762,8 @@ public class DiagnosticTests extends BaseTest {
             log.info("Input field clicked");
 
             // getting Inference Name from excel sheet
-            List<String> InferencesList = ExcelReader.readDescriptionsFromExcel(
-                    "src/test/resources/InfObsNames.xlsx",
+            List<String> InferencesList = TestDataRepository.descriptions(
+                    TestDataRepository.INF_OBS_NAMES,
                     "Inferences");
             log.info("Inference List size: " + InferencesList.size());
 
@@ -807,11 +771,7 @@ public class DiagnosticTests extends BaseTest {
             int randomIndex = random.nextInt(InferencesList.size());
             String inferenceName = InferencesList.get(randomIndex);
 
-            List<Locator> inputInfList = Arrays.asList(
-                    page.locator(
-                            "div ng-select div.ng-select-container div.ng-value-container div.ng-input input[type=\"text\"]"));
-
-            Locator visibleInputInf = findFirstVisibleLocator(inputInfList);
+            Locator visibleInputInf = locators.locate(page, LocatorRegistry.NG_SELECT_INPUT, 15000);
 
             visibleInputInf.fill(inferenceName);
             log.info("Inference field filled with: {}", inferenceName);
@@ -852,7 +812,7 @@ public class DiagnosticTests extends BaseTest {
                     ".loading-screen-wrapper",
                     new Page.WaitForSelectorOptions().setState(WaitForSelectorState.HIDDEN));
 
-            page.waitForTimeout(3500);
+            Waits.settle(page, 3500);
 
             Locator copyButton = page.getByRole(AriaRole.BUTTON, new Page.GetByRoleOptions().setName("Copy"));
             if (copyButton.isVisible()) {
@@ -888,16 +848,16 @@ public class DiagnosticTests extends BaseTest {
                     .click();
             log.info("Manufacturer field clicked");
 
-            page.waitForTimeout(2000);
+            Waits.settle(page, 2000);
 
-            List<Locator> manufacturersList = page.locator("//ng-dropdown-panel//div[@role='option']").all();
+            DomSnapshot.Snapshot manufacturersList = DomSnapshot.of(page, "//ng-dropdown-panel//div[@role='option']");
 
             Random random = new Random();
-            int randomIndex = random.nextInt(manufacturersList.size());
-            log.info("Random index selected: {}", randomIndex);
+            DomSnapshot.Node manufacturer = manufacturersList.random(random);
+            log.info("Random index selected: {}", manufacturer.index());
 
-            String selectedManufacturer = manufacturersList.get(randomIndex).textContent().trim();
-            manufacturersList.get(randomIndex).click();
+            String selectedManufacturer = manufacturer.text();
+            manufacturersList.click(manufacturer);
 
             log.info("Manufacturer option clicked: {}", selectedManufacturer);
 
@@ -908,14 +868,14 @@ public class DiagnosticTests extends BaseTest {
             log.info("Next button clicked");
 
             // observation
-            page.waitForTimeout(2000);
+            Waits.settle(page, 2000);
 
             page.locator(".new-obsrv-select > .ng-select-container").click();
             log.info("Text box clicked");
 
             // getting Observation Name from excel sheet
-            List<String> observationsList = ExcelReader.readDescriptionsFromExcel(
-                    "src/test/resources/InfObsNames.xlsx",
+            List<String> observationsList = TestDataRepository.descriptions(
+                    TestDataRepository.INF_OBS_NAMES,
                     "Observations");
             log.info("Observation List size: " + observationsList.size());
 
@@ -942,8 +902,8 @@ public class DiagnosticTests extends BaseTest {
             log.info("Inference field clicked");
 
             // getting Inference Name from excel sheet
-            List<String> InferencesList = ExcelReader.readDescriptionsFromExcel(
-                    "src/test/resources/InfObsNames.xlsx",
+            List<String> InferencesList = TestDataRepository.descriptions(
+                    TestDataRepository.INF_OBS_NAMES,
                     "Inferences");
             log.info("Inference List size: " + InferencesList.size());
 
@@ -974,7 +934,7 @@ public class DiagnosticTests extends BaseTest {
             page.getByRole(AriaRole.BUTTON, new Page.GetByRoleOptions().setName("Save Observation")).click();
             log.info("Save Observation button clicked");
 
-            page.waitForTimeout(2000);
+            Waits.settle(page, 2000);
         } catch (Exception e) {
             log.error("Test Failed: {}", e.getMessage());
             Assertions.fail("Test Failed: " + e.getMessage());
@@ -1024,16 +984,9 @@ public class DiagnosticTests extends BaseTest {
 
             log.info("New Observation field filled");
 
-            page.waitForTimeout(1500);
-
-            List<Locator> listBoxList = Arrays.asList(
-                    page.locator("div[role='listbox'][aria-label='Options List'].ng-dropdown-panel-items"),
-                    page.locator("div.ng-dropdown-panel-items"));
-
-            Locator visibleListBox = findFirstVisibleLocator(listBoxList);
+            Waits.settle(page, 1500);
 
-            visibleListBox.waitFor(
-                    new Locator.WaitForOptions().setState(WaitForSelectorState.VISIBLE).setTimeout(15000));
+            locators.locate(page, LocatorRegistry.TYPE_AHEAD_LISTBOX, 15000);
             log.info("Type Ahead listbox found");
 
             page.waitForSelector(
@@ -1041,21 +994,21 @@ public class DiagnosticTests extends BaseTest {
                     new Page.WaitForSelectorOptions().setState(WaitForSelectorState.VISIBLE).setTimeout(15000));
             log.info("Obs Options are visible");
 
-            List<Locator> exObsTAList = page.locator("div[role='option'].ng-option").all();
-            log.info("Obs List:- " + exObsTAList);
+            Waits.settle(page, 1500);
 
-            page.waitForTimeout(1500);
+            DomSnapshot.Snapshot exObsTAList = DomSnapshot.of(page, "div[role='option'].ng-option");
+            log.info("Obs List:- " + exObsTAList.texts());
 
             log.info("Observation list size:- " + exObsTAList.size());
 
-            if (!exObsTAList.isEmpty() || exObsTAList.size() > 0) {
-                int randomIndex = random.nextInt(exObsTAList.size());
-                log.info("Random index selected: {}", randomIndex);
-                String selectedObservation = exObsTAList.get(randomIndex).textContent().trim();
-                exObsTAList.get(randomIndex).click();
+            if (!exObsTAList.isEmpty()) {
+                DomSnapshot.Node option = exObsTAList.random(random);
+                log.info("Random index selected: {}", option.index());
+                String selectedObservation = option.text();
+                exObsTAList.click(option);
                 log.info("Existing Observation Type Ahead option clicked: {}", selectedObservation);
 
-                page.waitForTimeout(1500);
+                Waits.settle(page, 1500);
             }
         } catch (Exception e) {
             log.error("Existing Observation not found: {}", e.getMessage());
@@ -1081,25 +1034,14 @@ public class DiagnosticTests extends BaseTest {
             char randomChar = alphabets[index];
             log.info("Random character generated: {}", randomChar);
 
-            List<Locator> inputInfList = Arrays.asList(
-                    page.locator(
-                            "div ng-select div.ng-select-container div.ng-value-container div.ng-input input[type=\"text\"]"));
-
-            Locator visibleInputInf = findFirstVisibleLocator(inputInfList);
+            Locator visibleInputInf = locators.locate(page, LocatorRegistry.NG_SELECT_INPUT, 15000);
 
             visibleInputInf.fill("" + randomChar);
             log.info("Solution field filled");
 
-            page.waitForTimeout(1500);
-
-            List<Locator> listBoxList = Arrays.asList(
-                    page.locator("div[role='listbox'][aria-label='Options List'].ng-dropdown-panel-items"),
-                    page.locator("div.ng-dropdown-panel-items"));
-
-            Locator visibleListBox = findFirstVisibleLocator(listBoxList);
+            Waits.settle(page, 1500);
 
-            visibleListBox.waitFor(
-                    new Locator.WaitForOptions().setState(WaitForSelectorState.VISIBLE).setTimeout(15000));
+            locators.locate(page, LocatorRegistry.TYPE_AHEAD_LISTBOX, 15000);
             log.info("Type Ahead listbox found");
 
             page.waitForSelector(
@@ -1107,22 +1049,22 @@ public class DiagnosticTests extends BaseTest {
                     new Page.WaitForSelectorOptions().setState(WaitForSelectorState.VISIBLE).setTimeout(15000));
             log.info("Inf Options are visible");
 
-            List<Locator> exInfTAList = page.locator("div[role='option'].ng-option").all();
-            log.info("Inf List:- " + exInfTAList);
+            Waits.settle(page, 1500);
 
-            page.waitForTimeout(1500);
+            DomSnapshot.Snapshot exInfTAList = DomSnapshot.of(page, "div[role='option'].ng-option");
+            log.info("Inf List:- " + exInfTAList.texts());
 
             log.info("Inference list size:- " + exInfTAList.size());
 
-            if (!exInfTAList.isEmpty() || exInfTAList.size() != 0) {
-                int randomIndex = random.nextInt(exInfTAList.size());
-                log.info("Random index selected: {}", randomIndex);
-                String selectedInference = exInfTAList.get(randomIndex).textContent().trim();
-                exInfTAList.get(randomIndex).click();
+            if (!exInfTAList.isEmpty()) {
+                DomSnapshot.Node option = exInfTAList.random(random);
+                log.info("Random index selected: {}", option.index());
+                String selectedInference = option.text();
+                exInfTAList.click(option);
                 log.info("Existing Inference Type Ahead option clicked: {}", selectedInference);
             }
 
-            page.waitForTimeout(2000);
+            Waits.settle(page, 2000);
 
             uploadMedia();
 
@@ -1138,7 +1080,7 @@ public class DiagnosticTests extends BaseTest {
     // create new in inbox
     private void selectManufacturer() {
         try {
-            page.waitForTimeout(2000);
+            Waits.settle(page, 2000);
 
             page.getByRole(AriaRole.BUTTON, new Page.GetByRoleOptions().setName("  Create New")).click();
             log.info("Create New button clicked");
@@ -1153,16 +1095,16 @@ public class DiagnosticTests extends BaseTest {
                     .click();
             log.info("Manufacturer field clicked");
 
-            page.waitForTimeout(2000);
+            Waits.settle(page, 2000);
 
-            List<Locator> manufacturersList = page.locator("//ng-dropdown-panel//div[@role='option']").all();
+            DomSnapshot.Snapshot manufacturersList = DomSnapshot.of(page, "//ng-dropdown-panel//div[@role='option']");
 
             Random random = new Random();
-            int randomIndex = random.nextInt(manufacturersList.size());
-            log.info("Random index selected: {}", randomIndex);
+            DomSnapshot.Node manufacturer = manufacturersList.random(random);
+            log.info("Random index selected: {}", manufacturer.index());
 
-            String selectedManufacturer = manufacturersList.get(randomIndex).textContent().trim();
-            manufacturersList.get(randomIndex).click();
+            String selectedManufacturer = manufacturer.text();
+            manufacturersList.click(manufacturer);
 
             log.info("Manufacturer option clicked: {}", selectedManufacturer);
 
@@ -1180,7 +1122,7 @@ public class DiagnosticTests extends BaseTest {
     private void selectObs() {
         try {
             // observation
-            page.waitForTimeout(2000);
+            Waits.settle(page, 2000);
 
             page.locator(".new-obsrv-select > .ng-select-container").click();
             log.info("Text box clicked");
@@ -1207,16 +1149,9 @@ public class DiagnosticTests extends BaseTest {
                     .fill("" + randomChar);
             log.info("Observation field filled");
 
-            page.waitForTimeout(1500);
+            Waits.settle(page, 1500);
 
-            List<Locator> listBoxList = Arrays.asList(
-                    page.locator("div[role='listbox'][aria-label='Options List'].ng-dropdown-panel-items"),
-                    page.locator("div.ng-dropdown-panel-items"));
-
-            Locator visibleListBox = findFirstVisibleLocator(listBoxList);
-
-            visibleListBox.waitFor(
-                    new Locator.WaitForOptions().setState(WaitForSelectorState.VISIBLE).setTimeout(15000));
+            locators.locate(page, LocatorRegistry.TYPE_AHEAD_LISTBOX, 15000);
             log.info("Type Ahead listbox found");
 
             page.waitForSelector(
@@ -1224,21 +1159,21 @@ public class DiagnosticTests extends BaseTest {
                     new Page.WaitForSelectorOptions().setState(WaitForSelectorState.VISIBLE).setTimeout(15000));
             log.info("Obs Options are visible");
 
-            List<Locator> exObsTAList = page.locator("div[role='option'].ng-option").all();
-            log.info("Obs List:- " + exObsTAList);
+            Waits.settle(page, 1500);
 
-            page.waitForTimeout(1500);
+            DomSnapshot.Snapshot exObsTAList = DomSnapshot.of(page, "div[role='option'].ng-option");
+            log.info("Obs List:- " + exObsTAList.texts());
 
             log.info("Observation list size:- " + exObsTAList.size());
 
-            if (!exObsTAList.isEmpty() || exObsTAList.size() != 0) {
-                int randomObsIndex = random.nextInt(exObsTAList.size());
-                log.info("Random index selected: {}", randomObsIndex);
-                String selectedObservation = exObsTAList.get(randomObsIndex).textContent().trim();
-                exObsTAList.get(randomObsIndex).click();
+            if (!exObsTAList.isEmpty()) {
+                DomSnapshot.Node option = exObsTAList.random(random);
+                log.info("Random index selected: {}", option.index());
+                String selectedObservation = option.text();
+                exObsTAList.click(option);
                 log.info("Existing Observation Type Ahead option clicked: {}", selectedObservation);
 
-                page.waitForTimeout(1500);
+                Waits.settle(page, 1500);
             }
         } catch (Exception e) {
             log.error("Test Failed: {}", e.getMessage());
@@ -1252,23 +1187,29 @@ public class DiagnosticTests extends BaseTest {
             // existing
             Random random = new Random();
             try {
-                page.waitForSelector(
-                        "ul.result-wrapper",
-                        new Page.WaitForSelectorOptions().setState(WaitForSelectorState.VISIBLE).setTimeout(15000));
+                RetryPolicy.Outcome<DomSnapshot.Snapshot> existing = RetryPolicy.named(tenant, "selectInf")
+                        .poll(
+                                () -> page.locator("ul.result-wrapper").isVisible()
+                                        ? DomSnapshot.of(page, "ul.result-wrapper li")
+                                        : null,
+                                Objects::nonNull);
+                if (!existing.ok()) {
+                    throw new TimeoutError("ul.result-wrapper not visible after " + existing.elapsedMs() + "ms");
+                }
                 log.info("Existing Inferences are visible");
 
-                List<Locator> exInfList = page.locator("ul.result-wrapper li").all();
+                DomSnapshot.Snapshot exInfList = existing.value();
                 log.info("Inference List Size: " + exInfList.size());
-                log.info("Inference List: " + exInfList);
+                log.info("Inference List: " + exInfList.texts());
 
-                if (exInfList.size() > 0) {
-                    int randomExInfIndex = random.nextInt(exInfList.size());
-                    log.info("Random index selected: {}", randomExInfIndex);
-                    String selectedInference = exInfList.get(randomExInfIndex).textContent().trim();
-                    exInfList.get(randomExInfIndex).click();
+                if (!exInfList.isEmpty()) {
+                    DomSnapshot.Node inference = exInfList.random(random);
+                    log.info("Random index selected: {}", inference.index());
+                    String selectedInference = inference.text();
+                    exInfList.click(inference);
                     log.info("Existing Observation Type Ahead option clicked: {}", selectedInference);
 
-                    page.waitForTimeout(1500);
+                    Waits.settle(page, 1500);
                 }
             } catch (Exception e) {
                 log.info("existing Inferences not found:-" + e.getMessage());
@@ -1303,16 +1244,9 @@ public class DiagnosticTests extends BaseTest {
                     .fill("" + randomCharInf);
             log.info("Inference field filled");
 
-            page.waitForTimeout(1500);
-
-            List<Locator> listBoxList = Arrays.asList(
-                    page.locator("div[role='listbox'][aria-label='Options List'].ng-dropdown-panel-items"),
-                    page.locator("div.ng-dropdown-panel-items"));
+            Waits.settle(page, 1500);
 
-            Locator visibleListBox = findFirstVisibleLocator(listBoxList);
-
-            visibleListBox.waitFor(
-                    new Locator.WaitForOptions().setState(WaitForSelectorState.VISIBLE).setTimeout(15000));
+            locators.locate(page, LocatorRegistry.TYPE_AHEAD_LISTBOX, 15000);
             log.info("Type Ahead listbox found");
 
             page.waitForSelector(
@@ -1320,25 +1254,25 @@ public class DiagnosticTests extends BaseTest {
                     new Page.WaitForSelectorOptions().setState(WaitForSelectorState.VISIBLE).setTimeout(15000));
             log.info("Inf Options are visible");
 
-            List<Locator> exInfTAList = page.locator("div[role='option'].ng-option").all();
-            log.info("Inf List:- " + exInfTAList);
+            Waits.settle(page, 1500);
 
-            page.waitForTimeout(1500);
+            DomSnapshot.Snapshot exInfTAList = DomSnapshot.of(page, "div[role='option'].ng-option");
+            log.info("Inf List:- " + exInfTAList.texts());
 
             log.info("Inference list size:- " + exInfTAList.size());
 
-            if (!exInfTAList.isEmpty() || exInfTAList.size() != 0) {
-                int randomInfIndex = random.nextInt(exInfTAList.size());
-                log.info("Random index selected: {}", randomInfIndex);
-                String selectedInference = exInfTAList.get(randomInfIndex).textContent().trim();
-                exInfTAList.get(randomInfIndex).click();
+            if (!exInfTAList.isEmpty()) {
+                DomSnapshot.Node option = exInfTAList.random(random);
+                log.info("Random index selected: {}", option.index());
+                String selectedInference = option.text();
+                exInfTAList.click(option);
                 log.info("Existing Inference Type Ahead option clicked: {}", selectedInference);
             }
             page.waitForSelector(
                     ".loading-screen-wrapper",
                     new Page.WaitForSelectorOptions().setState(WaitForSelectorState.HIDDEN));
 
-            page.waitForTimeout(1500);
+            Waits.settle(page, 1500);
 
             page
                     .getByLabel("2Observation Details")
@@ -1359,6 +1293,8 @@ public class DiagnosticTests extends BaseTest {
     @Order(7)
     @QaseId(7)
     @QaseTitle("Existing Observation and Existing Inference")
+    @Requires("sr-open")
+    @Provides("sr-investigation")
     public void exObsExInf() {
         try {
             if (checkObs()) {
@@ -1368,7 +1304,7 @@ public class DiagnosticTests extends BaseTest {
 
                     existingInfCheckbox();
 
-                    page.waitForTimeout(2000);
+                    Waits.settle(page, 2000);
 
                     uploadMedia();
 
@@ -1397,7 +1333,7 @@ public class DiagnosticTests extends BaseTest {
 
                     existingInfCheckbox();
 
-                    page.waitForTimeout(2000);
+                    Waits.settle(page, 2000);
 
                     uploadMedia();
 
@@ -1427,6 +1363,8 @@ public class DiagnosticTests extends BaseTest {
     @Order(8)
     @QaseId(8)
     @QaseTitle("Delete Investigation")
+    @Requires("sr-investigation")
+    @Provides("sr-cleared")
     public void deleteInvestigation() {
         try {
             page.locator("mat-card-title i").click();
@@ -1468,6 +1406,8 @@ public class DiagnosticTests extends BaseTest {
     @Order(9)
     @QaseId(9)
     @QaseTitle("New Observation and New Inference")
+    @Requires("sr-cleared")
+    @Provides(value = "sr-new-observation", data = "pending-observations")
     public void newObsNewInf() {
         try {
             if (checkObs()) {
@@ -1479,7 +1419,7 @@ public class DiagnosticTests extends BaseTest {
 
                     newInf();
 
-                    page.waitForTimeout(2000);
+                    Waits.settle(page, 2000);
 
                     uploadMedia();
 
@@ -1489,7 +1429,7 @@ public class DiagnosticTests extends BaseTest {
 
                     newInf();
 
-                    page.waitForTimeout(2000);
+                    Waits.settle(page, 2000);
 
                     uploadMedia();
 
@@ -1504,7 +1444,7 @@ public class DiagnosticTests extends BaseTest {
 
                     newInf();
 
-                    page.waitForTimeout(2000);
+                    Waits.settle(page, 2000);
 
                     uploadMedia();
 
@@ -1514,7 +1454,7 @@ public class DiagnosticTests extends BaseTest {
 
                     newInf();
 
-                    page.waitForTimeout(2000);
+                    Waits.settle(page, 2000);
 
                     uploadMedia();
 
@@ -1535,6 +1475,8 @@ public class DiagnosticTests extends BaseTest {
     @Order(10)
     @QaseId(10)
     @QaseTitle("Existing Observation and existing Inference(Type Ahead)")
+    @Requires("sr-new-observation")
+    @Provides("sr-type-ahead")
     public void exObsExInfTA() {
         try {
             if (checkObs()) {
@@ -1611,6 +1553,7 @@ public class DiagnosticTests extends BaseTest {
     @Order(11)
     @QaseId(11)
     @QaseTitle("Existing Observation and New Inference")
+    @Requires("sr-type-ahead")
     public void exObsNewInfExInf() {
         try {
             if (checkObs()) {
@@ -1628,7 +1571,7 @@ public class DiagnosticTests extends BaseTest {
 
                     newInf();
 
-                    page.waitForTimeout(2000);
+                    Waits.settle(page, 2000);
 
                     uploadMedia();
 
@@ -1652,7 +1595,7 @@ public class DiagnosticTests extends BaseTest {
 
                     newInf();
 
-                    page.waitForTimeout(2000);
+                    Waits.settle(page, 2000);
 
                     uploadMedia();
 
@@ -1675,7 +1618,7 @@ public class DiagnosticTests extends BaseTest {
 
                     newInf();
 
-                    page.waitForTimeout(2000);
+                    Waits.settle(page, 2000);
 
                     uploadMedia();
 
@@ -1699,7 +1642,7 @@ public class DiagnosticTests extends BaseTest {
 
                     newInf();
 
-                    page.waitForTimeout(2000);
+                    Waits.settle(page, 2000);
 
                     uploadMedia();
 
@@ -1717,6 +1660,8 @@ public class DiagnosticTests extends BaseTest {
     @Order(12)
     @QaseId(12)
     @QaseTitle("Navigate to Observation Management")
+    @Requires("home")
+    @Provides("observation-mgmt")
     public void navigateToObsManagement() {
         try {
             handleInitialPopup();
@@ -1724,8 +1669,9 @@ public class DiagnosticTests extends BaseTest {
             page.locator("body > app > default-layout > div > aside > div.sidebar.collapsed").hover();
             log.info("Sidebar hovered");
 
-            page.waitForTimeout(2000);
+            Waits.settle(page, 2000);
 
+            NavigationMetrics.mark(page);
             page.getByRole(AriaRole.LINK, new Page.GetByRoleOptions().setName(" Observation Management")).click();
             log.info("Observation Management clicked");
 
@@ -1734,6 +1680,8 @@ public class DiagnosticTests extends BaseTest {
                     page.url().contains("observation-mgmt"),
                     "Not redirected on Observation Management page");
             log.info("Navigated to Observation Management page");
+
+            checkNavigationPerformance("observation-mgmt");
         } catch (Exception e) {
             log.error("Navigation to Observation Management failed: {}", e.getMessage());
             Assertions.fail("Navigation to Observation Management failed: " + e.getMessage());
@@ -1744,6 +1692,8 @@ public class DiagnosticTests extends BaseTest {
     @Order(13)
     @QaseId(13)
     @QaseTitle("Create new Observation in Observation Management")
+    @Requires("observation-mgmt")
+    @Provides("observation-mgmt-created")
     public void createNewOM() {
         try {
             // create new
@@ -1758,6 +1708,7 @@ public class DiagnosticTests extends BaseTest {
     @Order(14)
     @QaseId(14)
     @QaseTitle("Select Existing in Observation Management")
+    @Requires("observation-mgmt-created")
     public void selectExOM() {
         try {
             // select Manufacturer
@@ -1848,19 +1799,24 @@ public class DiagnosticTests extends BaseTest {
     @Order(15)
     @QaseId(15)
     @QaseTitle("Navigate To Inference Management")
+    @Requires("home")
+    @Provides("inference-mgmt")
     public void navigateToInferenceManagement() {
         try {
             page.locator("body > app > default-layout > div > aside > div.sidebar.collapsed").hover();
             log.info("Sidebar hovered");
 
-            page.waitForTimeout(2000);
+            Waits.settle(page, 2000);
 
+            NavigationMetrics.mark(page);
             page.getByRole(AriaRole.LINK, new Page.GetByRoleOptions().setName("Inference Management")).click();
             log.info("Inference Management clicked");
 
             page.waitForURL(url -> url.contains("inference-mgmt"), new Page.WaitForURLOptions().setTimeout(45000));
             Assertions.assertTrue(page.url().contains("inference-mgmt"), "Not redirected on Inference Management page");
             log.info("Navigated to Inference Management page");
+
+            checkNavigationPerformance("inference-mgmt");
         } catch (Exception e) {
             log.error("Navigation to Inference Management failed: {}", e.getMessage());
             Assertions.fail("Navigation to Inference Management failed: " + e.getMessage());
@@ -1871,6 +1827,8 @@ public class DiagnosticTests extends BaseTest {
     @Order(16)
     @QaseId(16)
     @QaseTitle("Edit Inference")
+    @Requires("inference-mgmt")
+    @Provides("inference-edited")
     public void editInf() {
         try {
             page.locator(".action-btn").first().click();
@@ -1889,6 +1847,8 @@ public class DiagnosticTests extends BaseTest {
     @Order(17)
     @QaseId(17)
     @QaseTitle("Merge Similar Inferences")
+    @Requires("inference-edited")
+    @Provides("inference-merged")
     public void mergeSimilarInf() {
         try {
             page.getByText("Similar Inferences", new Page.GetByTextOptions().setExact(true)).click();
@@ -1926,9 +1886,11 @@ public class DiagnosticTests extends BaseTest {
     @Order(18)
     @QaseId(18)
     @QaseTitle("Create New Child Inference")
+    @Requires("inference-merged")
+    @Provides("inference-child")
     public void createNewChildInf() {
         try {
-            page.waitForTimeout(2000);
+            Waits.settle(page, 2000);
 
             Locator childInfTab = page.locator("div.step div.step-label:has-text(\"Child Inferences\")");
 
@@ -1939,8 +1901,8 @@ public class DiagnosticTests extends BaseTest {
                 page.locator("input[type=\"text\"]").click();
 
                 // getting Inference Name from excel sheet
-                List<String> InferencesList = ExcelReader.readDescriptionsFromExcel(
-                        "src/test/resources/InfObsNames.xlsx",
+                List<String> InferencesList = TestDataRepository.descriptions(
+                        TestDataRepository.INF_OBS_NAMES,
                         "Inferences");
                 log.info("Inference List size: " + InferencesList.size());
 
@@ -1977,6 +1939,7 @@ public class DiagnosticTests extends BaseTest {
     @Order(19)
     @QaseId(19)
     @QaseTitle("Create New Observation in Inference Management")
+    @Requires("inference-child")
     public void createObs() {
         try {
             // create New Inference
@@ -1985,8 +1948,8 @@ public class DiagnosticTests extends BaseTest {
             page.locator("input[type=\"text\"]").click();
 
             // getting Observation Name from excel sheet
-            List<String> observationsList = ExcelReader.readDescriptionsFromExcel(
-                    "src/test/resources/InfObsNames.xlsx",
+            List<String> observationsList = TestDataRepository.descriptions(
+                    TestDataRepository.INF_OBS_NAMES,
                     "Observations");
             log.info("Observation List size: " + observationsList.size());
 
@@ -2015,19 +1978,24 @@ public class DiagnosticTests extends BaseTest {
     @Order(20)
     @QaseId(20)
     @QaseTitle("Navigate To Multimedia Management")
+    @Requires("home")
+    @Provides("multimedia-mgmt")
     public void navigateToMultimediaManagement() {
         try {
             page.locator("body > app > default-layout > div > aside > div.sidebar.collapsed").hover();
             log.info("Sidebar hovered");
 
-            page.waitForTimeout(2000);
+            Waits.settle(page, 2000);
 
+            NavigationMetrics.mark(page);
             page.getByRole(AriaRole.LINK, new Page.GetByRoleOptions().setName(" Multimedia Management")).click();
             log.info("Multimedia Management clicked");
 
             page.waitForURL(url -> url.contains("multimedia"), new Page.WaitForURLOptions().setTimeout(45000));
             Assertions.assertTrue(page.url().contains("multimedia"), "Not redirected on Multimedia Management page");
             log.info("Navigated to Multimedia Management page");
+
+            checkNavigationPerformance("multimedia");
         } catch (Exception e) {
             log.error("Navigation to Multimedia Management failed: {}", e.getMessage());
             Assertions.fail("Navigation to Multimedia Management failed: " + e.getMessage());
@@ -2038,6 +2006,8 @@ public class DiagnosticTests extends BaseTest {
     @Order(21)
     @QaseId(21)
     @QaseTitle("Create New Multimedia")
+    @Requires("multimedia-mgmt")
+    @Provides("multimedia-created")
     public void createNewMultimedia() {
         try {
             page.getByRole(AriaRole.BUTTON, new Page.GetByRoleOptions().setName("  Create New")).click();
@@ -2055,7 +2025,7 @@ public class DiagnosticTests extends BaseTest {
 
             fileInput.setInputFiles(filePath.toAbsolutePath());
 
-            page.waitForTimeout(1000);
+            Waits.settle(page, 1000);
             page
                     .getByRole(AriaRole.TEXTBOX, new Page.GetByRoleOptions().setName("Please Enter Asset Tags"))
                     .first()
@@ -2063,14 +2033,14 @@ public class DiagnosticTests extends BaseTest {
 
             String inputTag = "Demo Image 1";
 
-            page.waitForTimeout(1000);
+            Waits.settle(page, 1000);
             page
                     .getByRole(AriaRole.TEXTBOX, new Page.GetByRoleOptions().setName("Please Enter Asset Tags"))
                     .first()
                     .fill(inputTag);
             // using excel pending
 
-            page.waitForTimeout(1000);
+            Waits.settle(page, 1000);
             page
                     .getByRole(AriaRole.TEXTBOX, new Page.GetByRoleOptions().setName("Please Enter Asset Tags"))
                     .first()
@@ -2095,6 +2065,7 @@ public class DiagnosticTests extends BaseTest {
     @Order(22)
     @QaseId(22)
     @QaseTitle("Edit Multimedia")
+    @Requires("multimedia-created")
     public void editMultimedia() {
         try {
             page.locator(".action-btn").first().click();
@@ -2118,20 +2089,20 @@ public class DiagnosticTests extends BaseTest {
             Path filePath = Paths.get("C:\\Users\\abhay\\Downloads\\Demo_Image2.jpg");
 
             fileInput.setInputFiles(filePath.toAbsolutePath());
-            page.waitForTimeout(1000);
+            Waits.settle(page, 1000);
 
             page
                     .getByRole(AriaRole.TEXTBOX, new Page.GetByRoleOptions().setName("Please Enter Asset Tags"))
                     .first()
                     .click();
-            page.waitForTimeout(1000);
+            Waits.settle(page, 1000);
 
             page
                     .getByRole(AriaRole.TEXTBOX, new Page.GetByRoleOptions().setName("Please Enter Asset Tags"))
                     .first()
                     .fill("Demo Image 2");
             // using excel pending
-            page.waitForTimeout(1000);
+            Waits.settle(page, 1000);
 
             page
                     .getByRole(AriaRole.TEXTBOX, new Page.GetByRoleOptions().setName("Please Enter Asset Tags"))
@@ -2141,12 +2112,12 @@ public class DiagnosticTests extends BaseTest {
             page.getByRole(AriaRole.BUTTON, new Page.GetByRoleOptions().setName("Update File")).click();
             log.info("File uploaded successfully!");
 
-            page.waitForTimeout(5000);
+            Waits.settle(page, 5000);
 
             // delete file
             page.locator(".delete-btn").first().click();
             log.info("Delete button clicked");
-            page.waitForTimeout(2000);
+            Waits.settle(page, 2000);
         } catch (Exception e) {
             log.error("Edit Multimedia Button Click failed: {}", e.getMessage());
             Assertions.fail("Edit Multimedia Button Click failed: " + e.getMessage());
@@ -2158,19 +2129,24 @@ public class DiagnosticTests extends BaseTest {
     @Order(23)
     @QaseId(23)
     @QaseTitle("Navigate to Inbox")
+    @Requires(value = "home", data = "pending-observations")
+    @Provides("inbox")
     public void navigateToInbox() {
         try {
             page.locator("body > app > default-layout > div > aside > div.sidebar.collapsed").hover();
             log.info("Sidebar hovered");
 
-            page.waitForTimeout(2000);
+            Waits.settle(page, 2000);
 
+            NavigationMetrics.mark(page);
             page.getByRole(AriaRole.LINK, new Page.GetByRoleOptions().setName(" Inbox")).click();
             log.info("Inbox clicked");
 
             page.waitForURL(url -> url.contains("inbox"), new Page.WaitForURLOptions().setTimeout(45000));
             Assertions.assertTrue(page.url().contains("inbox"), "Not redirected on Inbox page");
             log.info("Navigated to Inbox page");
+
+            checkNavigationPerformance("inbox");
         } catch (Exception e) {
             log.error("Navigation to Inbox failed: {}", e.getMessage());
             Assertions.fail("Navigation to Inbox failed: " + e.getMessage());
@@ -2181,6 +2157,8 @@ public class DiagnosticTests extends BaseTest {
     @Order(24)
     @QaseId(24)
     @QaseTitle("Merge Observations")
+    @Requires("inbox")
+    @Provides("inbox-merged")
     public void mergeObs() {
         try {
             // Merge Observations
@@ -2191,13 +2169,16 @@ public class DiagnosticTests extends BaseTest {
             log.info("Merge Observations button clicked");
 
             try {
-                page.waitForSelector("li.result-text");
-                List<Locator> allObservationOptions = page.locator("li.result-text").all();
+                RetryPolicy.Outcome<DomSnapshot.Snapshot> options = RetryPolicy.named(tenant, "mergeObs")
+                        .poll(() -> DomSnapshot.of(page, "li.result-text"), snapshot -> !snapshot.visible().isEmpty());
+                if (!options.ok()) {
+                    throw new TimeoutError("li.result-text not visible after " + options.elapsedMs() + "ms");
+                }
+                DomSnapshot.Snapshot allObservationOptions = options.value();
                 log.info("All Observation Options size: {}", allObservationOptions.size());
 
-                Random random = new Random();
-                int randomIndex = random.nextInt(allObservationOptions.size());
-                Locator radio = allObservationOptions.get(randomIndex).locator("input[type='radio']");
+                DomSnapshot.Node option = allObservationOptions.random(new Random());
+                Locator radio = allObservationOptions.locator(option).locator("input[type='radio']");
 
                 radio.waitFor(new Locator.WaitForOptions().setState(WaitForSelectorState.VISIBLE));
 
@@ -2222,6 +2203,8 @@ public class DiagnosticTests extends BaseTest {
     @Order(25)
     @QaseId(25)
     @QaseTitle("Create New in Inbox")
+    @Requires("inbox-merged")
+    @Provides("inbox-created")
     public void createNewInbox() {
         try {
             // Create New Observation
@@ -2251,6 +2234,8 @@ public class DiagnosticTests extends BaseTest {
     @Order(26)
     @QaseId(26)
     @QaseTitle("Select Existing in Inbox")
+    @Requires("inbox-created")
+    @Provides("inbox-selected")
     public void selectExInbox() {
         try {
             // select Manufacturer
@@ -2286,6 +2271,8 @@ public class DiagnosticTests extends BaseTest {
     @Order(27)
     @QaseId(27)
     @QaseTitle("Approve Observations")
+    @Requires("inbox-selected")
+    @Provides("inbox-obs-approved")
     public void approveObs() {
         try {
             // Approve Inferences
@@ -2326,6 +2313,8 @@ public class DiagnosticTests extends BaseTest {
     @Order(28)
     @QaseId(28)
     @QaseTitle("Apporve Inferences")
+    @Requires("inbox-obs-approved")
+    @Provides("inbox-inf-approved")
     public void approveInf() {
         try {
             // Bulb Icon Click
@@ -2372,7 +2361,7 @@ public class DiagnosticTests extends BaseTest {
                     ".loading-screen-wrapper",
                     new Page.WaitForSelectorOptions().setState(WaitForSelectorState.HIDDEN));
 
-            page.waitForTimeout(2000);
+            Waits.settle(page, 2000);
         } catch (Exception e) {
             log.error("Test Failed: {}", e.getMessage());
             Assertions.fail("Test Failed: " + e.getMessage());
@@ -2383,9 +2372,11 @@ public class DiagnosticTests extends BaseTest {
     @Order(29)
     @QaseId(29)
     @QaseTitle("Delete Inferences")
+    @Requires("inbox-inf-approved")
+    @Provides("inbox-inf-deleted")
     public void deleteInf() {
         try {
-            page.waitForTimeout(2000);
+            Waits.settle(page, 2000);
             // Bulb Icon Click
             page.locator("i.fa-lightbulb-o").nth(4).click();
 
@@ -2397,14 +2388,14 @@ public class DiagnosticTests extends BaseTest {
 
             page.waitForLoadState(LoadState.NETWORKIDLE);
 
-            page.waitForTimeout(2000);
+            Waits.settle(page, 2000);
 
             // Select Inference
             selectInference();
             // page.locator("input[type='checkbox'][aria-label*='toggle row
             // selection']").click();
 
-            page.waitForTimeout(2000);
+            Waits.settle(page, 2000);
             page.waitForSelector(
                     ".loading-screen-wrapper",
                     new Page.WaitForSelectorOptions().setState(WaitForSelectorState.HIDDEN));
@@ -2446,6 +2437,8 @@ public class DiagnosticTests extends BaseTest {
     @Order(30)
     @QaseId(30)
     @QaseTitle("Edit Observations")
+    @Requires("inbox-inf-deleted")
+    @Provides("inbox-obs-edited")
     public void editObs() {
         try {
             page.locator(".action-btn").first().click();
@@ -2465,6 +2458,8 @@ public class DiagnosticTests extends BaseTest {
     @Order(31)
     @QaseId(31)
     @QaseTitle("Create New Inference")
+    @Requires("inbox-obs-edited")
+    @Provides("inbox-inf-created")
     public void createNewInf() {
         try {
             // create New Inference
@@ -2473,8 +2468,8 @@ public class DiagnosticTests extends BaseTest {
             page.locator("input[type=\"text\"]").click();
 
             // getting Inference Name from excel sheet
-            List<String> InferencesList = ExcelReader.readDescriptionsFromExcel(
-                    "src/test/resources/InfObsNames.xlsx",
+            List<String> InferencesList = TestDataRepository.descriptions(
+                    TestDataRepository.INF_OBS_NAMES,
                     "Inferences");
             log.info("Inference List size: " + InferencesList.size());
 
@@ -2506,6 +2501,8 @@ public class DiagnosticTests extends BaseTest {
     @Order(32)
     @QaseId(32)
     @QaseTitle("Reject Inference")
+    @Requires("inbox-inf-created")
+    @Provides("inbox-inf-rejected")
     public void rejectInf() {
         try {
             page.waitForSelector(
@@ -2542,6 +2539,7 @@ public class DiagnosticTests extends BaseTest {
     @Order(33)
     @QaseId(33)
     @QaseTitle("Delete Observations")
+    @Requires("inbox-inf-rejected")
     public void deleteObs() {
         try {
             // Delete Observation
@@ -2564,13 +2562,16 @@ public class DiagnosticTests extends BaseTest {
     @Order(34)
     @QaseId(34)
     @QaseTitle("Navigate To Self Service Diagnostics")
+    @Requires("home")
+    @Provides("self-service")
     public void navigateToSelfServiceDiagnostics() {
         try {
             page.locator("body > app > default-layout > div > aside > div.sidebar.collapsed").hover();
             log.info("Sidebar hovered");
 
-            page.waitForTimeout(2000);
+            Waits.settle(page, 2000);
 
+            NavigationMetrics.mark(page);
             page.getByRole(AriaRole.LINK, new Page.GetByRoleOptions().setName(" Self Service Diagnostics")).click();
             log.info("Self Service Diagnostics clicked");
 
@@ -2579,6 +2580,8 @@ public class DiagnosticTests extends BaseTest {
                     page.url().contains("self-service"),
                     "Not redirected on Self Service Diagnostics page");
             log.info("Navigated to Self Service Diagnostics page");
+
+            checkNavigationPerformance("self-service");
         } catch (Exception e) {
             log.error("Navigation to Self Service Diagnostics failed: {}", e.getMessage());
             Assertions.fail("Navigation to Self Service Diagnostics failed: " + e.getMessage());
@@ -2589,6 +2592,7 @@ public class DiagnosticTests extends BaseTest {
     @Order(35)
     @QaseId(35)
     @QaseTitle("Upload File in Self Service Diagnostics")
+    @Requires("self-service")
     public void uploadFileInSSD() {
         try {
             page.getByRole(AriaRole.BUTTON, new Page.GetByRoleOptions().setName("  Upload File")).click();
@@ -2611,12 +2615,12 @@ public class DiagnosticTests extends BaseTest {
             Path filePath = Paths.get("C:\\Users\\abhay\\Downloads\\Self Diagnostics test - Sheet1.csv");
 
             fileInput.setInputFiles(filePath.toAbsolutePath());
-            page.waitForTimeout(1000);
+            Waits.settle(page, 1000);
 
             page.getByRole(AriaRole.BUTTON, new Page.GetByRoleOptions().setName("Upload").setExact(true)).click();
             log.info("File uploaded successfully!");
 
-            page.waitForTimeout(1500);
+            Waits.settle(page, 1500);
 
             page.waitForSelector(
                     ".loading-screen-wrapper",
@@ -2639,19 +2643,23 @@ public class DiagnosticTests extends BaseTest {
     @Order(36)
     @QaseId(36)
     @QaseTitle("Navigate to Predictions")
+    @Requires("home")
     public void navigateToPredictions() {
         try {
             page.locator("body > app > default-layout > div > aside > div.sidebar.collapsed").hover();
             log.info("Sidebar hovered");
 
-            page.waitForTimeout(2000);
+            Waits.settle(page, 2000);
 
+            NavigationMetrics.mark(page);
             page.getByRole(AriaRole.LINK, new Page.GetByRoleOptions().setName("Prediction")).click();
             log.info("Predictions clicked");
 
             page.waitForURL(url -> url.contains("predictions-v2"), new Page.WaitForURLOptions().setTimeout(45000));
             Assertions.assertTrue(page.url().contains("predictions-v2"), "Not redirected on Predictions page");
             log.info("Navigated to Predictions page");
+
+            checkNavigationPerformance("predictions-v2");
         } catch (Exception e) {
             log.error("Navigation to Predictions failed: {}", e.getMessage());
             Assertions.fail("Navigation to Predictions failed: " + e.getMessage());
@@ -0,0 +1,59 @@
+package com.qa.nal;
+
+import com.qa.nal.utils.LatencyRecorder;
+import com.qa.nal.utils.LoadGenerator;
+import com.qa.nal.utils.LoadGenerator.Stage;
+import com.qa.nal.utils.LoadGenerator.StageResult;
+import com.qa.nal.utils.Tenant;
+import com.qa.nal.utils.TenantRegistry;
+import java.util.*;
+import org.slf4j.*;
+
+// Steps the prediction pipeline through increasing arrival rates until it saturates.
+// mvn test-compile exec:java@load-test -Dtenant=bsc-dev -Dload.rps=5,10,20,40 -Dload.durationSeconds=60
+public class LoadTestRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    public static void main(String[] args) throws Exception {
+        Tenant tenant = TenantRegistry.current();
+        long duration = Long.getLong("load.durationSeconds", 60);
+        int maxInFlight = Integer.getInteger("load.maxInFlight", 500);
+        double typeAheadShare = Double.parseDouble(System.getProperty("load.typeAheadShare", "0.5"));
+        double maxErrorRate = Double.parseDouble(System.getProperty("load.maxErrorRate", "0.05"));
+
+        List<Stage> stages = new ArrayList<>();
+        for (String rps : System.getProperty("load.rps", "5,10,20").split(",")) {
+            stages.add(new Stage(Double.parseDouble(rps.trim()), duration));
+        }
+
+        log.info("Load test on {} | Stages: {}", tenant, stages);
+
+        for (Stage stage : stages) {
+            LatencyRecorder recorder = new LatencyRecorder();
+            LoadGenerator generator = new LoadGenerator(
+                    tenant,
+                    LoadGenerator.predictionWorkload(tenant, typeAheadShare),
+                    recorder,
+                    maxInFlight);
+
+            StageResult result = generator.run(stage);
+            String name = String.format("load-%s-%srps", tenant.name(), (long) stage.targetRps());
+            log.info("Stage {} rps latency:{}", stage.targetRps(), recorder.percentileTable());
+            recorder.write(LatencyRecorder.REPORT_DIR, name);
+
+            double errorRate = result.completed() == 0 ? 1 : (double) result.errors() / result.completed();
+            // Both over the same arrival window, so stages compare; completions lagging sends means a growing queue
+            boolean keptUp = result.completedRps() >= stage.targetRps() * 0.9 && result.dropped() == 0;
+            if (errorRate > maxErrorRate || !keptUp) {
+                log.warn(
+                        "⚠️ Saturation reached at {} rps (error rate {}%, sent {} rps, completed {} rps)",
+                        stage.targetRps(),
+                        String.format("%.2f", errorRate * 100),
+                        String.format("%.1f", result.sendRps()),
+                        String.format("%.1f", result.completedRps()));
+                break;
+            }
+        }
+    }
+}
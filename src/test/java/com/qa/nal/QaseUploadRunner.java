@@ -0,0 +1,24 @@
+package com.qa.nal;
+
+import com.qa.nal.utils.QaseSpool;
+import org.slf4j.*;
+
+// Uploads whatever is still in the Qase spool, e.g. after an offline run or while Qase was down.
+// mvn test-compile exec:java@qase-upload -DQASE_TESTOPS_API_TOKEN=... [-DQASE_TESTOPS_RUN_ID=123]
+public class QaseUploadRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(QaseUploadRunner.class);
+
+    public static void main(String[] args) {
+        int before = QaseSpool.pending();
+        if (before == 0) {
+            log.info("✅ Nothing spooled in {}", QaseSpool.DIR);
+            return;
+        }
+
+        QaseSpool.upload();
+        int after = QaseSpool.pending();
+        log.info("{} Uploaded {} of {} spooled result(s)", after == 0 ? "✅" : "❌", before - after, before);
+        System.exit(after == 0 ? 0 : 1);
+    }
+}
@@ -0,0 +1,57 @@
+package com.qa.nal;
+
+import com.qa.nal.utils.RunHistory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.slf4j.*;
+
+// Compacts build/run-history and reports flaky tests and duration regressions over the recorded runs.
+// mvn test-compile exec:java@run-history [-Dhistory.days=90 -Dhistory.recentRuns=5 -Dhistory.baselineRuns=20]
+public class RunHistoryRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RunHistoryRunner.class);
+
+    public static void main(String[] args) {
+        RunHistory.compact();
+
+        Instant since = Instant.now().minus(Duration.ofDays(Long.getLong("history.days", 90)));
+        int recentRuns = Integer.getInteger("history.recentRuns", 5);
+        int baselineRuns = Integer.getInteger("history.baselineRuns", 20);
+        double factor = Double.parseDouble(System.getProperty("history.factor", "1.3"));
+        double minFlipRate = Double.parseDouble(System.getProperty("history.minFlipRate", "0.2"));
+
+        List<RunHistory.Entry> entries = RunHistory.entries(since);
+        if (entries.isEmpty()) {
+            log.info("✅ No run history in {}", RunHistory.DIR);
+            return;
+        }
+        log.info("{} result(s) from {} run(s) since {}", entries.size(), RunHistory.runs(entries).size(), since);
+
+        List<RunHistory.Flake> flakes = RunHistory.flaky(entries, recentRuns + baselineRuns, minFlipRate);
+        for (RunHistory.Flake flake : flakes) {
+            log.warn(
+                    "⚠️ Flaky [{}] {}: {} of {} run(s) failed, outcome flipped in {}% of runs",
+                    flake.tenant(),
+                    flake.test(),
+                    flake.failures(),
+                    flake.runs(),
+                    Math.round(flake.flipRate() * 100));
+        }
+
+        List<RunHistory.Regression> regressions = RunHistory.regressions(entries, recentRuns, baselineRuns, factor);
+        for (RunHistory.Regression regression : regressions) {
+            log.warn(
+                    "⚠️ Slower [{}] {}: {} ms -> {} ms (x{})",
+                    regression.tenant(),
+                    regression.test(),
+                    regression.baselineMs(),
+                    regression.recentMs(),
+                    String.format("%.2f", regression.ratio()));
+        }
+
+        if (flakes.isEmpty() && regressions.isEmpty()) {
+            log.info("✅ No flaky tests or duration regressions");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.qa.nal;
+
+import com.qa.nal.utils.LatencyRecorder;
+import com.qa.nal.utils.QaseApi;
+import com.qa.nal.utils.RunHistory;
+import com.qa.nal.utils.Shard;
+import com.qa.nal.utils.ShardMerge;
+import com.qa.nal.utils.TestDurations;
+import java.nio.file.*;
+import java.util.List;
+import org.json.JSONObject;
+import org.slf4j.*;
+
+// Before the shards: `open-run` creates one Qase test run and writes its id to target/shards/qase-run-id.txt, so
+// every shard reports into it (-DQASE_TESTOPS_RUN_ID=<id>). It also snapshots the expected test durations from the
+// run history into build/shard-durations.json (-Dshard.durations), which every shard plans with.
+// After the shards: `merge` (default) combines target/shards/shard-*/ into target/shards/merged/, adds the shards'
+// results to the local run history and completes the run.
+// mvn test-compile exec:java@shard-merge -Dexec.args=merge -DQASE_TESTOPS_RUN_ID=123
+public class ShardMergeRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardMergeRunner.class);
+
+    public static void main(String[] args) throws Exception {
+        String action = args.length > 0 ? args[0] : "merge";
+        Path root = Shard.REPORT_DIR;
+
+        if (action.equals("open-run")) {
+            Path snapshot = Paths.get(System.getProperty("shard.durations", "build/shard-durations.json"));
+            TestDurations.fromHistory().write(snapshot);
+            log.info("✅ Test durations written to {}", snapshot);
+
+            String title = System.getProperty(
+                    "qase.run.title",
+                    "Nightly regression " + System.getenv().getOrDefault("BUILD_NUMBER", "local"));
+            long runId = QaseApi.createRun(title);
+            Files.createDirectories(root);
+            Files.writeString(root.resolve("qase-run-id.txt"), String.valueOf(runId));
+            log.info("✅ Qase run {} opened: {}", runId, title);
+            return;
+        }
+
+        List<Path> shards = ShardMerge.shardDirs(root);
+        if (shards.isEmpty()) {
+            log.error("❌ No shard reports found under {}", root);
+            System.exit(1);
+        }
+        Path merged = root.resolve("merged");
+
+        for (Path shard : shards) {
+            Path history = shard.resolve("history.jsonl.gz");
+            if (Files.exists(history)) {
+                RunHistory.append(history);
+            }
+        }
+
+        ShardMerge.Totals totals = ShardMerge.junit(shards, merged.resolve("TEST-merged.xml"));
+        LatencyRecorder latency = ShardMerge.latency(shards);
+        if (!latency.isEmpty()) {
+            log.info("API latency (all shards):{}", latency.percentileTable());
+            latency.write(merged, "api-latency");
+        }
+
+        Files.writeString(
+                merged.resolve("summary.json"),
+                new JSONObject()
+                        .put("shards", shards.size())
+                        .put("suites", totals.suites())
+                        .put("tests", totals.tests())
+                        .put("failures", totals.failures())
+                        .put("errors", totals.errors())
+                        .put("skipped", totals.skipped())
+                        .put("timeSeconds", totals.timeSeconds())
+                        .toString(2));
+
+        Long runId = QaseApi.runId();
+        if (runId != null && QaseApi.configured()) {
+            QaseApi.completeRun(runId);
+            log.info("✅ Qase run {} completed", runId);
+        }
+
+        log.info(
+                "{} {} shard(s) | Tests: {} | Failures: {} | Errors: {} | Skipped: {} | Time: {}s",
+                totals.failed() ? "❌" : "✅",
+                shards.size(),
+                totals.tests(),
+                totals.failures(),
+                totals.errors(),
+                totals.skipped(),
+                String.format("%.1f", totals.timeSeconds()));
+        System.exit(totals.failed() ? 1 : 0);
+    }
+}
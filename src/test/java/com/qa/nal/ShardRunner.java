@@ -0,0 +1,138 @@
+package com.qa.nal;
+
+import com.qa.nal.utils.BrowserPool;
+import com.qa.nal.utils.DependencyScheduler;
+import com.qa.nal.utils.DependencyScheduler.Branch;
+import com.qa.nal.utils.DependencyScheduler.BranchResult;
+import com.qa.nal.utils.LatencyRecorder;
+import com.qa.nal.utils.RunHistory;
+import com.qa.nal.utils.Shard;
+import com.qa.nal.utils.Tenant;
+import com.qa.nal.utils.TenantRegistry;
+import com.qa.nal.utils.TestDurations;
+import java.lang.reflect.Method;
+import java.nio.file.*;
+import java.util.*;
+import org.json.*;
+import org.slf4j.*;
+
+// One shard of the nightly regression. The work is split into units of tenant x test group (DependencyScheduler
+// branches, kept together where they share data), packed onto the shards longest first by their expected duration.
+// -Dshard.durations=<snapshot> (written by exec:java@shard-merge open-run) makes every agent plan with the same
+// durations; without it the local run history is used.
+// mvn test-compile exec:java@shard -Dshard.index=0 -Dshard.total=4 -Dtenants=all
+// Reports land in target/shards/shard-<index>/ for exec:java@shard-merge.
+public class ShardRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRunner.class);
+
+    record Unit(Tenant tenant, List<Branch> branches) {
+        String key() {
+            return tenant.name() + "/" + branches.get(0).name();
+        }
+
+        List<Method> tests() {
+            return branches.stream().flatMap(branch -> branch.all().stream()).toList();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Shard shard = Shard.current();
+        List<Tenant> tenants = TenantRegistry.select(System.getProperty("tenants"));
+        List<List<Branch>> groups = DependencyScheduler.linked(DependencyScheduler.plan(DiagnosticTests.class));
+
+        List<Unit> units = new ArrayList<>();
+        for (Tenant tenant : tenants) {
+            for (List<Branch> group : groups) {
+                units.add(new Unit(tenant, group));
+            }
+        }
+        String snapshot = System.getProperty("shard.durations");
+        TestDurations durations =
+                snapshot == null ? TestDurations.shared() : TestDurations.read(Paths.get(snapshot));
+        Map<Unit, Long> estimates = new HashMap<>();
+        for (Unit unit : units) {
+            estimates.put(unit, durations.estimateMs(unit.tenant(), unit.tests()));
+        }
+
+        List<List<Unit>> plan = Shard.pack(units, Unit::key, estimates::get, shard.total());
+        for (int i = 0; i < plan.size(); i++) {
+            log.info(
+                    "Shard {}/{}: {} unit(s), ~{}s expected",
+                    i + 1,
+                    shard.total(),
+                    plan.get(i).size(),
+                    plan.get(i).stream().mapToLong(estimates::get).sum() / 1000);
+        }
+        List<Unit> mine = shard.assign(units, Unit::key, estimates::get);
+        long expectedMs = mine.stream().mapToLong(estimates::get).sum();
+        log.info("Shard {}: {} of {} unit(s)", shard, mine.size(), units.size());
+        for (Unit unit : mine) {
+            log.info("  {} (~{}s)", unit.key(), estimates.get(unit) / 1000);
+        }
+
+        int workers = Integer.getInteger("shard.workers", BrowserPool.shared().size());
+        Path reportDir = shard.reportDir();
+        long start = System.currentTimeMillis();
+        BrowserPool.shared().warmUp(workers);
+
+        // Units of one tenant run together so the branches share its auth cache warm-up
+        Map<Tenant, List<Branch>> byTenant = new LinkedHashMap<>();
+        for (Unit unit : mine) {
+            byTenant.computeIfAbsent(unit.tenant(), k -> new ArrayList<>()).addAll(unit.branches());
+        }
+
+        boolean failed = false;
+        JSONArray results = new JSONArray();
+        for (Map.Entry<Tenant, List<Branch>> entry : byTenant.entrySet()) {
+            Tenant tenant = entry.getKey();
+            List<BranchResult> branchResults = TenantRegistry.runAs(
+                    tenant,
+                    () -> DependencyScheduler.run(
+                            DiagnosticTests.class, entry.getValue(), reportDir.resolve(tenant.name()), workers));
+
+            for (BranchResult result : branchResults) {
+                long duration = result.summary().getTimeFinished() - result.summary().getTimeStarted();
+                log.info(
+                        "{} {} / {} | Tests: {} | Failed: {} | Time: {}s",
+                        result.summary().getTotalFailureCount() == 0 ? "✅" : "❌",
+                        tenant,
+                        result.branch().name(),
+                        result.summary().getTestsFoundCount(),
+                        result.summary().getTotalFailureCount(),
+                        duration / 1000.0);
+                failed |= result.summary().getTotalFailureCount() > 0;
+                results.put(new JSONObject()
+                        .put("tenant", tenant.name())
+                        .put("branch", result.branch().name())
+                        .put("tests", result.summary().getTestsFoundCount())
+                        .put("failed", result.summary().getTotalFailureCount())
+                        .put("durationMs", duration));
+            }
+        }
+
+        LatencyRecorder.global().write(reportDir.resolve("latency"), "api-latency");
+        Files.createDirectories(reportDir);
+        // Handed to the merge step, so the next build plans with this agent's durations too
+        RunHistory.flush();
+        if (Files.exists(RunHistory.runFile())) {
+            Files.copy(
+                    RunHistory.runFile(),
+                    reportDir.resolve("history.jsonl.gz"),
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+        Files.writeString(
+                reportDir.resolve("shard.json"),
+                new JSONObject()
+                        .put("index", shard.index())
+                        .put("total", shard.total())
+                        .put("units", new JSONArray(mine.stream().map(Unit::key).toList()))
+                        .put("results", results)
+                        .put("expectedMs", expectedMs)
+                        .put("durationMs", System.currentTimeMillis() - start)
+                        .toString(2));
+
+        log.info("Shard {} finished in {}s", shard, (System.currentTimeMillis() - start) / 1000.0);
+        System.exit(failed ? 1 : 0);
+    }
+}
@@ -0,0 +1,228 @@
+package com.qa.nal;
+
+import com.qa.nal.utils.BrowserPool;
+import com.qa.nal.utils.LatencyRecorder;
+import com.qa.nal.utils.SuiteLauncher;
+import com.qa.nal.utils.Tenant;
+import com.qa.nal.utils.TenantRegistry;
+import com.qa.nal.utils.TestResultListener;
+import java.nio.file.*;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import org.json.*;
+import org.junit.platform.engine.discovery.DiscoverySelectors;
+import org.junit.platform.engine.discovery.MethodSelector;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+import org.slf4j.*;
+
+// Many technicians at once: N virtual users, each on its own browser context (and leased browser, since Playwright
+// objects belong to one thread), loop the SR journey (create + predict, resolve with an existing observation and
+// inference, delete the investigation) for a fixed time. Records UI test/step latency and API latency under that
+// concurrency, plus every iteration so slowdowns over the run show up.
+// mvn test-compile exec:java@soak -Dtenant=bsc-dev -Dsoak.minutes=30 [-Dsoak.users=8 -Dsoak.rampSeconds=60]
+// Users default to what the machine can hold: -Dsoak.usersPerCore (2) and about 350 MB per headless user.
+// Runs on the load profile; results go to target/soak/<tenant>/, not to Qase or the run history.
+public class SoakRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SoakRunner.class);
+
+    // Headless Chromium at the load profile's viewport with one context
+    private static final long BYTES_PER_USER = 350L * 1024 * 1024;
+
+    // Setup chain (skipped quickly once the auth state is cached) followed by the journey itself
+    private static final String JOURNEY = "navigateToLoginPage,performLogin,handleInitialPopup,"
+            + "navigateToIntelligentDiagnostics,navigateToServiceRequest,"
+            + "createNewServiceRequest,exObsExInf,deleteInvestigation";
+
+    record Iteration(int user, int number, Instant startedAt, long durationMs, long tests, long failed) {}
+
+    public static void main(String[] args) throws Exception {
+        defaultProperty("profile", "EXECUTION_PROFILE", "load");
+        defaultProperty("qase.spool", "QASE_SPOOL", "off");
+        defaultProperty("run.history", null, "false");
+        defaultProperty("spans.maxEvents", null, "20000");
+
+        int perCore = Integer.getInteger("soak.usersPerCore", 2);
+        int users = Integer.getInteger("soak.users", BrowserPool.capacity(BYTES_PER_USER, perCore));
+        // Every user holds a browser for the whole run
+        defaultProperty("browser.pool.size", null, String.valueOf(users));
+
+        Tenant tenant = TenantRegistry.current();
+        long durationMs = Long.getLong("soak.minutes", 30) * 60_000;
+        long rampMs = Long.getLong("soak.rampSeconds", 60) * 1000;
+        long thinkMs = Long.getLong("soak.thinkMs", 2000);
+        double maxFailureRate = Double.parseDouble(System.getProperty("soak.maxFailureRate", "0.05"));
+        Path reportDir = Paths.get("target", "soak", tenant.name());
+
+        List<MethodSelector> journey = new ArrayList<>();
+        for (String test : System.getProperty("soak.journey", JOURNEY).split(",")) {
+            journey.add(DiscoverySelectors.selectMethod(DiagnosticTests.class, test.trim()));
+        }
+
+        log.info(
+                "Soak on {} | Users: {} | Duration: {} min | Ramp-up: {}s | Journey: {}",
+                tenant,
+                users,
+                durationMs / 60_000,
+                rampMs / 1000,
+                System.getProperty("soak.journey", JOURNEY));
+
+        // UI latency per test and per step() marker, fed by TestResultListener on the users' threads
+        LatencyRecorder ui = new LatencyRecorder();
+        Consumer<JSONObject> uiLatency = result -> {
+            String test = result.optString("test", result.optString("title"));
+            boolean ok = !"failed".equals(result.optString("status"));
+            ui.record(tenant.name(), test, result.optLong("timeMs") * 1_000_000, ok);
+            JSONArray steps = result.optJSONArray("steps");
+            for (int i = 0; steps != null && i < steps.length(); i++) {
+                JSONObject step = steps.getJSONObject(i);
+                ui.record(
+                        tenant.name(),
+                        test.substring(test.indexOf('#') + 1) + " / " + step.getString("name"),
+                        step.getLong("durationMs") * 1_000_000,
+                        ok);
+            }
+        };
+        TestResultListener.subscribe(uiLatency);
+
+        BrowserPool.shared().warmUp(users);
+
+        List<Iteration> iterations = Collections.synchronizedList(new ArrayList<>());
+        long start = System.currentTimeMillis();
+        long deadline = start + durationMs;
+        ExecutorService pool = Executors.newFixedThreadPool(users);
+        for (int u = 0; u < users; u++) {
+            int user = u + 1;
+            // Staggered starts, so the users don't all log in and create an SR in the same second
+            long startAt = start + rampMs * u / users;
+            pool.submit(() -> TenantRegistry.runAs(tenant, () -> {
+                Thread.currentThread().setName("soak-user-" + user);
+                sleepUntil(startAt);
+                int number = 0;
+                while (System.currentTimeMillis() < deadline) {
+                    number++;
+                    Instant startedAt = Instant.now();
+                    long iterationStart = System.nanoTime();
+                    try {
+                        TestExecutionSummary summary =
+                                SuiteLauncher.run(reportDir.resolve("user-" + user), journey);
+                        long took = (System.nanoTime() - iterationStart) / 1_000_000;
+                        iterations.add(new Iteration(
+                                user,
+                                number,
+                                startedAt,
+                                took,
+                                summary.getTestsFoundCount(),
+                                summary.getTotalFailureCount()));
+                        ui.record(tenant.name(), "journey", took * 1_000_000, summary.getTotalFailureCount() == 0);
+                        log.info(
+                                "{} User {} iteration {} | Failed: {} | Time: {}s",
+                                summary.getTotalFailureCount() == 0 ? "✅" : "❌",
+                                user,
+                                number,
+                                summary.getTotalFailureCount(),
+                                took / 1000.0);
+                    } catch (RuntimeException e) {
+                        long took = (System.nanoTime() - iterationStart) / 1_000_000;
+                        iterations.add(new Iteration(user, number, startedAt, took, 0, 1));
+                        log.error("❌ User {} iteration {} | Error: {}", user, number, e.getMessage(), e);
+                    }
+                    sleepUntil(Math.min(deadline, System.currentTimeMillis() + thinkMs));
+                }
+                return null;
+            }));
+        }
+        pool.shutdown();
+        // The last iterations started before the deadline are allowed to finish
+        if (!pool.awaitTermination(durationMs + rampMs + 30 * 60_000, TimeUnit.MILLISECONDS)) {
+            log.warn("⚠️ Users still running after the soak window; reporting what finished");
+        }
+        TestResultListener.unsubscribe(uiLatency);
+
+        long failed = iterations.stream().filter(iteration -> iteration.failed() > 0).count();
+        double failureRate = iterations.isEmpty() ? 1 : (double) failed / iterations.size();
+
+        // Journey time in the first vs. the last quarter of the run: growth points at leaks or backend saturation
+        List<Iteration> ordered = new ArrayList<>(iterations);
+        ordered.sort(Comparator.comparing(Iteration::startedAt));
+        int quarter = Math.max(1, ordered.size() / 4);
+        long firstMs = median(ordered.subList(0, Math.min(quarter, ordered.size())));
+        long lastMs = median(ordered.subList(Math.max(0, ordered.size() - quarter), ordered.size()));
+
+        if (!ui.isEmpty()) {
+            log.info("UI latency under {} users:{}", users, ui.percentileTable());
+            ui.write(reportDir, "ui-latency");
+        }
+        if (!LatencyRecorder.global().isEmpty()) {
+            log.info("API latency under {} users:{}", users, LatencyRecorder.global().percentileTable());
+            LatencyRecorder.global().write(reportDir, "api-latency");
+        }
+
+        JSONArray runs = new JSONArray();
+        for (Iteration iteration : ordered) {
+            runs.put(new JSONObject()
+                    .put("user", iteration.user())
+                    .put("iteration", iteration.number())
+                    .put("startedAt", iteration.startedAt().toString())
+                    .put("durationMs", iteration.durationMs())
+                    .put("tests", iteration.tests())
+                    .put("failed", iteration.failed()));
+        }
+        Files.createDirectories(reportDir);
+        Files.writeString(
+                reportDir.resolve("soak.json"),
+                new JSONObject()
+                        .put("tenant", tenant.name())
+                        .put("users", users)
+                        .put("durationMs", System.currentTimeMillis() - start)
+                        .put("iterations", iterations.size())
+                        .put("failedIterations", failed)
+                        .put("firstQuarterMedianMs", firstMs)
+                        .put("lastQuarterMedianMs", lastMs)
+                        .put("runs", runs)
+                        .toString(2));
+
+        boolean ok = !iterations.isEmpty() && failureRate <= maxFailureRate;
+        log.info(
+                "{} Soak on {} | Users: {} | Iterations: {} | Failed: {} ({}%) | Journey median: {}s -> {}s",
+                ok ? "✅" : "❌",
+                tenant,
+                users,
+                iterations.size(),
+                failed,
+                String.format("%.1f", failureRate * 100),
+                firstMs / 1000.0,
+                lastMs / 1000.0);
+        System.exit(ok ? 0 : 1);
+    }
+
+    private static long median(List<Iteration> iterations) {
+        if (iterations.isEmpty()) {
+            return 0;
+        }
+        List<Long> durations = new ArrayList<>(iterations.stream().map(Iteration::durationMs).toList());
+        Collections.sort(durations);
+        return durations.get(durations.size() / 2);
+    }
+
+    private static void sleepUntil(long epochMs) {
+        long wait = epochMs - System.currentTimeMillis();
+        if (wait <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Soak defaults that an explicit -D (or the matching environment variable) still overrides
+    private static void defaultProperty(String key, String env, String value) {
+        if (System.getProperty(key) == null && (env == null || System.getenv(env) == null)) {
+            System.setProperty(key, value);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.qa.nal;
+
+import com.qa.nal.utils.BrowserPool;
+import com.qa.nal.utils.SuiteLauncher;
+import com.qa.nal.utils.Tenant;
+import com.qa.nal.utils.TenantRegistry;
+import com.qa.nal.utils.TestDurations;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import org.junit.platform.engine.discovery.DiscoverySelectors;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+import org.slf4j.*;
+
+// Runs the ordered DiagnosticTests suite once per tenant, tenants in parallel on a bounded pool. The slowest tenants
+// (by run history) start first, so the last worker isn't left with a long suite at the end.
+// mvn test-compile exec:java@tenant-matrix -Dtenants=bsc-dev,amd-dev -Dtenant.workers=4
+public class TenantMatrixRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantMatrixRunner.class);
+
+    public static void main(String[] args) throws Exception {
+        List<Tenant> tenants = new ArrayList<>(TenantRegistry.select(System.getProperty("tenants")));
+        TestDurations durations = TestDurations.shared();
+        tenants.sort(Comparator.comparingLong((Tenant tenant) -> durations.estimateMs(tenant, DiagnosticTests.class))
+                .reversed());
+        int defaultWorkers = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        int workers = Math.min(tenants.size(), Integer.getInteger("tenant.workers", defaultWorkers));
+        Path reportRoot = Paths.get("target", "tenant-reports");
+
+        log.info("Running {} tenant(s) on {} worker(s): {}", tenants.size(), workers, tenants);
+
+        // ✅ Start browsers up front; workers beyond the pool size queue for a free one
+        BrowserPool.shared().warmUp(workers);
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, workers));
+        Map<Tenant, Future<TestExecutionSummary>> results = new LinkedHashMap<>();
+        long start = System.currentTimeMillis();
+
+        for (Tenant tenant : tenants) {
+            results.put(
+                    tenant,
+                    pool.submit(() -> TenantRegistry.runAs(
+                            tenant,
+                            () -> SuiteLauncher.run(
+                                    reportRoot.resolve(tenant.name()),
+                                    List.of(DiscoverySelectors.selectClass(DiagnosticTests.class))))));
+        }
+        pool.shutdown();
+
+        boolean failed = false;
+        for (Map.Entry<Tenant, Future<TestExecutionSummary>> entry : results.entrySet()) {
+            try {
+                TestExecutionSummary summary = entry.getValue().get();
+                long duration = summary.getTimeFinished() - summary.getTimeStarted();
+                log.info(
+                        "{} Tenant: {} | Tests: {} | Failed: {} | Time: {}s",
+                        summary.getTotalFailureCount() == 0 ? "✅" : "❌",
+                        entry.getKey(),
+                        summary.getTestsFoundCount(),
+                        summary.getTotalFailureCount(),
+                        duration / 1000.0);
+                failed |= summary.getTotalFailureCount() > 0;
+            } catch (ExecutionException e) {
+                log.error("❌ Tenant: {} | Error: {}", entry.getKey(), e.getCause().getMessage(), e.getCause());
+                failed = true;
+            }
+        }
+
+        log.info("Tenant matrix finished in {}s", (System.currentTimeMillis() - start) / 1000.0);
+        System.exit(failed ? 1 : 0);
+    }
+}
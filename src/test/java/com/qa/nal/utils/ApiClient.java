@@ -0,0 +1,91 @@
+package com.qa.nal.utils;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+// Thread-safe n7 backend client (java.net.http), usable from any thread unlike a Playwright APIRequestContext
+public class ApiClient {
+
+    public record ApiCall(String method, String endpoint, String body) {
+        public String name() {
+            String path = endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint;
+            return path.substring(path.lastIndexOf('/') + 1);
+        }
+    }
+
+    public record ApiResult(ApiCall call, int status, long nanos, String body, String error) {
+        public boolean ok() {
+            return error == null && status >= 200 && status < 300;
+        }
+    }
+
+    private static final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(30))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    // Headers the web client sends on every n7 API call
+    public static Map<String, String> headers(String authToken) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Authorization", authToken);
+        headers.put("Accept", "application/json");
+        headers.put("Content-Type", "application/json");
+        headers.put("n7-client-locale", "en");
+        headers.put("n7-client-type", "web");
+        return headers;
+    }
+
+    public static String url(Tenant tenant, String endpoint) {
+        return BackendMock.apiBaseUrl(tenant) + path(endpoint);
+    }
+
+    public static String path(String endpoint) {
+        return endpoint.startsWith("/") ? endpoint : "/" + endpoint;
+    }
+
+    // Never throws: transport failures come back as an ApiResult with an error
+    public static ApiResult call(Tenant tenant, ApiCall call) {
+        long start = System.nanoTime();
+        try {
+            String authToken = TokenBroker.token(tenant);
+            start = System.nanoTime();
+
+            HttpRequest.BodyPublisher body = call.body() == null || call.body().isEmpty()
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofString(call.body());
+
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url(tenant, call.endpoint())))
+                    .timeout(Duration.ofSeconds(45))
+                    .method(call.method().toUpperCase(), body);
+            headers(authToken).forEach(request::header);
+
+            HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            long nanos = System.nanoTime() - start;
+
+            if (response.statusCode() == 401) {
+                TokenBroker.invalidate(tenant);
+            }
+            BackendMock.record(
+                    tenant,
+                    call.method().toUpperCase(),
+                    path(call.endpoint()),
+                    call.body(),
+                    response.statusCode(),
+                    null,
+                    response.body(),
+                    nanos);
+            return new ApiResult(call, response.statusCode(), nanos, response.body(), null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ApiResult(call, 0, System.nanoTime() - start, null, "Interrupted");
+        } catch (Exception e) {
+            return new ApiResult(call, 0, System.nanoTime() - start, null, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.qa.nal.utils;
+
+import com.qa.nal.utils.ApiClient.ApiCall;
+import com.qa.nal.utils.ApiClient.ApiResult;
+import java.util.*;
+import java.util.concurrent.*;
+import org.json.JSONObject;
+
+// The endpoints DiagnosticTests validates, fired concurrently on virtual threads. Read-only by default:
+// caseobject/create leaves a new service request on the tenant every time, so it only runs with -Dsweep.writes=true.
+public class ApiSweep {
+
+    private static final String SERVICE_REQUEST_FILTER = "{\"condition\":\"AND\",\"rules\":[{\"field\":\"N7-client-locale\",\"operator\":\"EQUALS\",\"value\":\"en\"}]}";
+
+    // Same payload shapes the UI flow sends in createNewServiceRequest / newObs / uploadMedia
+    public static List<ApiCall> contractCalls(Tenant tenant) {
+        List<String> descriptions = TestDataRepository.descriptions(TestDataRepository.SR_DESCRIPTIONS, "devdemo");
+        String description = descriptions.get(new Random().nextInt(descriptions.size()));
+        String manufacturer = System.getProperty("sweep.manufacturer", Objects.toString(tenant.modelSearch(), ""));
+
+        String srPayload = new JSONObject()
+                .put("Manufacturer", manufacturer)
+                .put("Description", description)
+                .put("N7-client-locale", "en")
+                .toString();
+
+        List<ApiCall> calls = new ArrayList<>(List.of(
+                new ApiCall("GET", "/api/v1/config/ui", null),
+                new ApiCall("GET", "/data/caseobject/v2/getattributes", null),
+                new ApiCall("POST", "/v2/service_request", SERVICE_REQUEST_FILTER),
+                new ApiCall("POST", "/data/micro-predict-observation/topObservation", srPayload),
+                new ApiCall(
+                        "POST",
+                        "/data/type-ahead-observation",
+                        String.format("{\"observation\":\"test\",\"predictors\":%s}", srPayload)),
+                new ApiCall(
+                        "POST",
+                        "/api/v1/multimedia-assets/",
+                        "{\"client_source\":\"multimedia\",\"asset_tags\":[\"Demo Image 1\"]}")));
+        if (Boolean.getBoolean("sweep.writes")) {
+            calls.add(new ApiCall("POST", "/data/caseobject/create", srPayload));
+        }
+        return calls;
+    }
+
+    // Runs every call `rounds` times with at most `concurrency` requests in flight
+    public static List<ApiResult> run(Tenant tenant, List<ApiCall> calls, int rounds, int concurrency)
+            throws InterruptedException {
+        // Authenticate once up front so the sweep itself is pure endpoint latency
+        TokenBroker.token(tenant);
+
+        Semaphore inFlight = new Semaphore(Math.max(1, concurrency));
+        List<Future<ApiResult>> futures = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int round = 0; round < rounds; round++) {
+                for (ApiCall call : calls) {
+                    futures.add(executor.submit(() -> {
+                        inFlight.acquire();
+                        try {
+                            return ApiClient.call(tenant, call);
+                        } finally {
+                            inFlight.release();
+                        }
+                    }));
+                }
+            }
+        }
+
+        List<ApiResult> results = new ArrayList<>();
+        for (Future<ApiResult> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Sweep task failed: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+        return results;
+    }
+}
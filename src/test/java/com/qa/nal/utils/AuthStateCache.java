@@ -0,0 +1,148 @@
+package com.qa.nal.utils;
+
+import com.microsoft.playwright.BrowserContext;
+import java.nio.file.*;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.json.*;
+import org.slf4j.*;
+
+// Authenticated storageState on disk, keyed by tenant and user, reused by new contexts until the session expires
+public class AuthStateCache {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthStateCache.class);
+
+    // Kept outside target/ so `mvn clean` doesn't throw the session away (git-ignored, contains tokens)
+    private static final Path DIR = Paths.get(System.getProperty("auth.state.dir", "build/auth-state"));
+
+    // Fallback lifetime when neither a JWT nor a persistent cookie carries an expiry
+    private static final long DEFAULT_TTL_SECONDS = Long.getLong("auth.state.ttlSeconds", 1800);
+
+    // Treat the state as expired a bit early so a test doesn't start with a session about to lapse
+    private static final long SKEW_SECONDS = 60;
+
+    private static final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    public static boolean enabled() {
+        return !Boolean.getBoolean("auth.state.disabled");
+    }
+
+    public static Path path(Tenant tenant) {
+        String user = tenant.username() == null ? "default" : tenant.username().replaceAll("[^A-Za-z0-9._-]", "_");
+        return DIR.resolve(tenant.name() + "-" + user + ".json");
+    }
+
+    // Returns the cached state if it is still valid, otherwise null
+    public static Path validState(Tenant tenant) {
+        if (!enabled()) {
+            return null;
+        }
+
+        Path file = path(tenant);
+        synchronized (lock(file)) {
+            if (!Files.exists(file)) {
+                return null;
+            }
+
+            try {
+                long expiresAt = expiry(file);
+                long now = System.currentTimeMillis() / 1000;
+                if (expiresAt - SKEW_SECONDS > now) {
+                    log.info("✅ Reusing auth state for {} ({}s left)", tenant, expiresAt - now);
+                    return file;
+                }
+                log.info("Auth state for {} expired, a fresh login is needed", tenant);
+            } catch (Exception e) {
+                log.warn("⚠️ Unreadable auth state {}: {}", file, e.getMessage());
+            }
+
+            deleteQuietly(file);
+            return null;
+        }
+    }
+
+    public static void save(Tenant tenant, BrowserContext context) {
+        if (!enabled()) {
+            return;
+        }
+
+        Path file = path(tenant);
+        synchronized (lock(file)) {
+            Path tmp = null;
+            try {
+                Files.createDirectories(DIR);
+                // Write beside the target and move, so workers in other JVMs never read a partial file
+                tmp = Files.createTempFile(DIR, tenant.name(), ".tmp");
+                context.storageState(new BrowserContext.StorageStateOptions().setPath(tmp));
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                log.info("✅ Auth state saved for {}", tenant);
+            } catch (Exception e) {
+                log.warn("⚠️ Could not save auth state for {}: {}", tenant, e.getMessage());
+                // A half-written temp file holds tokens; don't leave it behind
+                if (tmp != null) {
+                    deleteQuietly(tmp);
+                }
+            }
+        }
+    }
+
+    public static void invalidate(Tenant tenant) {
+        Path file = path(tenant);
+        synchronized (lock(file)) {
+            if (deleteQuietly(file)) {
+                log.warn("⚠️ Auth state for {} rejected by server (401), dropped", tenant);
+            }
+        }
+    }
+
+    // Earliest JWT `exp` in localStorage, else earliest persistent cookie expiry, else file age + TTL
+    private static long expiry(Path file) throws Exception {
+        JSONObject state = new JSONObject(Files.readString(file));
+        long jwtExpiry = Long.MAX_VALUE;
+        long cookieExpiry = Long.MAX_VALUE;
+
+        JSONArray origins = state.optJSONArray("origins");
+        for (int i = 0; origins != null && i < origins.length(); i++) {
+            JSONArray storage = origins.getJSONObject(i).optJSONArray("localStorage");
+            for (int j = 0; storage != null && j < storage.length(); j++) {
+                long exp = Jwt.expiry(storage.getJSONObject(j).optString("value"));
+                if (exp > 0) {
+                    jwtExpiry = Math.min(jwtExpiry, exp);
+                }
+            }
+        }
+
+        JSONArray cookies = state.optJSONArray("cookies");
+        for (int i = 0; cookies != null && i < cookies.length(); i++) {
+            JSONObject cookie = cookies.getJSONObject(i);
+            long exp = Jwt.expiry(cookie.optString("value"));
+            if (exp > 0) {
+                jwtExpiry = Math.min(jwtExpiry, exp);
+            }
+            double expires = cookie.optDouble("expires", -1);
+            if (expires > 0) {
+                cookieExpiry = Math.min(cookieExpiry, (long) expires);
+            }
+        }
+
+        if (jwtExpiry != Long.MAX_VALUE) {
+            return jwtExpiry;
+        }
+        if (cookieExpiry != Long.MAX_VALUE) {
+            return cookieExpiry;
+        }
+        return Files.getLastModifiedTime(file).toMillis() / 1000 + DEFAULT_TTL_SECONDS;
+    }
+
+    private static Object lock(Path file) {
+        return locks.computeIfAbsent(file.toString(), k -> new Object());
+    }
+
+    private static boolean deleteQuietly(Path file) {
+        try {
+            return Files.deleteIfExists(file);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
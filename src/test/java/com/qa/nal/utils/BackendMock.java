@@ -0,0 +1,469 @@
+package com.qa.nal.utils;
+
+import com.microsoft.playwright.*;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import org.json.*;
+import org.slf4j.*;
+
+// Record/replay of the n7 backend (loginUrl:8889), selected with -Dbackend.mode=live|record|replay.
+// record: every exchange with the backend (UI and API) is saved as HAR-like fixtures, one file per tenant/endpoint,
+//         and the frontend itself is captured into a HAR so the UI can load without the server.
+// replay: the UI is fulfilled from those files and API clients are pointed at an in-process HTTP stand-in.
+// -Dbackend.latency=none|recorded|<ms> injects delay into replayed responses (recorded = the originally measured time).
+// Replay only answers a request with a fixture of the same method and path (the body picks between several); anything
+// else gets a 404 and an error naming the request. -Dbackend.replay.matchName=true opts back into answering with any
+// fixture recorded for the same last path segment, e.g. /obs/456 with the response for /obs/123.
+public class BackendMock {
+
+    private static final Logger log = LoggerFactory.getLogger(BackendMock.class);
+
+    public enum Mode {
+        LIVE,
+        RECORD,
+        REPLAY
+    }
+
+    // Kept outside target/ so fixtures survive `mvn clean` (git-ignored, contains tenant data and tokens)
+    private static final Path DIR = Paths.get(System.getProperty("backend.fixtures.dir", "build/backend-fixtures"));
+
+    // Distinct request bodies kept per endpoint while recording
+    private static final int MAX_PER_ENDPOINT = Integer.getInteger("backend.record.max", 20);
+
+    private static final Mode MODE = resolveMode();
+
+    // Fixed delay in ms, or RECORDED_LATENCY; checked once so a typo fails at start-up, not on every request
+    private static final long RECORDED_LATENCY = -1;
+    private static final long LATENCY_MS = resolveLatency(System.getProperty("backend.latency", "none"));
+
+    private static final boolean MATCH_NAME = Boolean.getBoolean("backend.replay.matchName");
+
+    public record Exchange(
+            String method,
+            String path,
+            String requestBody,
+            int status,
+            String contentType,
+            String authorization,
+            String responseBody,
+            long timeMs) {
+
+        boolean sameRequest(String method, String path, String body) {
+            return this.method.equalsIgnoreCase(method)
+                    && this.path.equals(path)
+                    && Objects.equals(normalize(requestBody), normalize(body));
+        }
+    }
+
+    // tenant -> endpoint name -> exchanges
+    private static final Map<String, Map<String, List<Exchange>>> recorded = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, List<Exchange>>> fixtures = new ConcurrentHashMap<>();
+
+    private static volatile HttpServer server;
+
+    static {
+        if (MODE == Mode.RECORD) {
+            Runtime.getRuntime().addShutdownHook(new Thread(BackendMock::flush, "backend-mock-flush"));
+        }
+    }
+
+    public static Mode mode() {
+        return MODE;
+    }
+
+    private static Mode resolveMode() {
+        String value = System.getProperty("backend.mode", System.getenv("BACKEND_MODE"));
+        return value == null || value.isBlank() ? Mode.LIVE : Mode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    static long resolveLatency(String value) {
+        String latency = value.trim().toLowerCase(Locale.ROOT);
+        if (latency.equals("none") || latency.isEmpty()) {
+            return 0;
+        }
+        if (latency.equals("recorded")) {
+            return RECORDED_LATENCY;
+        }
+        try {
+            long ms = Long.parseLong(latency.replace("ms", "").trim());
+            if (ms >= 0) {
+                return ms;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException(
+                "Invalid -Dbackend.latency '" + value + "'. Expected none, recorded or a delay in ms, e.g. 250");
+    }
+
+    // Where API clients should send requests: the real backend, or the local stand-in when replaying
+    public static String apiBaseUrl(Tenant tenant) {
+        if (MODE != Mode.REPLAY) {
+            return tenant.baseUrl();
+        }
+        return "http://127.0.0.1:" + server().getAddress().getPort() + "/" + tenant.name();
+    }
+
+    public static void attach(Tenant tenant, BrowserContext context) {
+        Path har = DIR.resolve(tenant.name()).resolve("frontend.har");
+        String frontend = tenant.loginUrl() + "/**";
+
+        switch (MODE) {
+            case RECORD -> {
+                try {
+                    Files.createDirectories(har.getParent());
+                } catch (Exception e) {
+                    throw new RuntimeException("Error creating fixture dir: " + e.getMessage(), e);
+                }
+                // Written by Playwright when the context closes
+                context.routeFromHAR(
+                        har, new BrowserContext.RouteFromHAROptions().setUrl(frontend).setUpdate(true));
+                context.onResponse(response -> recordUi(tenant, response));
+            }
+            case REPLAY -> {
+                if (Files.exists(har)) {
+                    context.routeFromHAR(
+                            har,
+                            new BrowserContext.RouteFromHAROptions()
+                                    .setUrl(frontend)
+                                    .setNotFound(HarNotFound.FALLBACK));
+                } else {
+                    log.warn("⚠️ No frontend HAR for {}, the UI shell still loads from the server", tenant);
+                }
+                context.route(tenant.baseUrl() + "/**", route -> replayUi(tenant, route));
+            }
+            default -> {}
+        }
+    }
+
+    // Called by API clients after each live call; path is relative to the backend, e.g. /data/getattributes
+    public static void record(
+            Tenant tenant,
+            String method,
+            String path,
+            String requestBody,
+            int status,
+            String authorization,
+            String body,
+            long nanos) {
+        if (MODE != Mode.RECORD || tenant == null) {
+            return;
+        }
+        add(
+                tenant,
+                new Exchange(
+                        method, path, requestBody, status, "application/json", authorization, body, nanos / 1_000_000));
+    }
+
+    private static void recordUi(Tenant tenant, Response response) {
+        if (!response.url().startsWith(tenant.baseUrl())) {
+            return;
+        }
+        try {
+            Request request = response.request();
+            String body = new String(response.body(), StandardCharsets.UTF_8);
+            long timeMs = (long) Math.max(0, request.timing().responseEnd);
+            add(
+                    tenant,
+                    new Exchange(
+                            request.method(),
+                            pathOf(response.url(), tenant.baseUrl()),
+                            request.postData(),
+                            response.status(),
+                            response.headers().getOrDefault("content-type", "application/json"),
+                            response.headers().get("authorization"),
+                            body,
+                            timeMs));
+        } catch (PlaywrightException e) {
+            // Redirects and aborted requests have no body
+            log.debug("Not recorded {}: {}", response.url(), e.getMessage());
+        }
+    }
+
+    private static void add(Tenant tenant, Exchange exchange) {
+        List<Exchange> list = recorded
+                .computeIfAbsent(tenant.name(), k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(endpointName(exchange.path()), k -> new CopyOnWriteArrayList<>());
+        list.removeIf(e -> e.sameRequest(exchange.method(), exchange.path(), exchange.requestBody()));
+        if (list.size() < MAX_PER_ENDPOINT) {
+            list.add(exchange);
+        }
+    }
+
+    private static void replayUi(Tenant tenant, Route route) {
+        Request request = route.request();
+        String path = pathOf(request.url(), tenant.baseUrl());
+        Exchange exchange = find(tenant.name(), request.method(), path, request.postData());
+        try {
+            if (exchange == null) {
+                route.fulfill(new Route.FulfillOptions()
+                        .setStatus(404)
+                        .setContentType("application/json")
+                        .setBody(unmatched(tenant.name(), request.method(), path, request.postData())));
+                return;
+            }
+            delay(exchange);
+            Map<String, String> headers = new HashMap<>();
+            headers.put("access-control-allow-origin", tenant.loginUrl());
+            headers.put("access-control-allow-credentials", "true");
+            headers.put("access-control-expose-headers", "authorization");
+            if (exchange.authorization() != null) {
+                headers.put("authorization", exchange.authorization());
+            }
+            route.fulfill(new Route.FulfillOptions()
+                    .setStatus(exchange.status())
+                    .setContentType(exchange.contentType())
+                    .setHeaders(headers)
+                    .setBody(exchange.responseBody()));
+        } catch (PlaywrightException e) {
+            log.debug("Replay for {} not delivered: {}", path, e.getMessage());
+        }
+    }
+
+    private static HttpServer server() {
+        if (server == null) {
+            synchronized (BackendMock.class) {
+                if (server == null) {
+                    try {
+                        HttpServer s = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+                        s.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+                        s.createContext("/", BackendMock::serve);
+                        s.start();
+                        Runtime.getRuntime().addShutdownHook(new Thread(() -> s.stop(0), "backend-mock-stop"));
+                        log.info("✅ Backend stand-in listening on port {}", s.getAddress().getPort());
+                        server = s;
+                    } catch (Exception e) {
+                        throw new RuntimeException("Error starting backend stand-in: " + e.getMessage(), e);
+                    }
+                }
+            }
+        }
+        return server;
+    }
+
+    // /<tenant>/<backend path>
+    private static void serve(HttpExchange http) {
+        try (http) {
+            String uri = http.getRequestURI().toString();
+            int slash = uri.indexOf('/', 1);
+            String tenant = slash < 0 ? uri.substring(1) : uri.substring(1, slash);
+            String path = slash < 0 ? "/" : uri.substring(slash);
+            String body = new String(http.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+
+            Exchange exchange = find(tenant, http.getRequestMethod(), path, body);
+            byte[] response;
+            if (exchange == null) {
+                response = unmatched(tenant, http.getRequestMethod(), path, body).getBytes(StandardCharsets.UTF_8);
+                http.getResponseHeaders().set("Content-Type", "application/json");
+                http.sendResponseHeaders(404, response.length);
+            } else {
+                delay(exchange);
+                response = exchange.responseBody().getBytes(StandardCharsets.UTF_8);
+                http.getResponseHeaders().set("Content-Type", exchange.contentType());
+                if (exchange.authorization() != null) {
+                    http.getResponseHeaders().set("Authorization", exchange.authorization());
+                }
+                http.sendResponseHeaders(exchange.status(), response.length == 0 ? -1 : response.length);
+            }
+            if (response.length > 0) {
+                http.getResponseBody().write(response);
+            }
+        } catch (Exception e) {
+            log.debug("Stand-in request failed: {}", e.getMessage());
+        }
+    }
+
+    // Exact request first, then the same method and path with another body; the endpoint-name fallback is opt-in
+    static Exchange find(String tenant, String method, String path, String body) {
+        return match(fixtures(tenant).getOrDefault(endpointName(path), List.of()), method, path, body, MATCH_NAME);
+    }
+
+    static Exchange match(List<Exchange> candidates, String method, String path, String body, boolean matchName) {
+        Exchange samePath = null;
+        Exchange sameName = null;
+        for (Exchange exchange : candidates) {
+            if (exchange.sameRequest(method, path, body)) {
+                return exchange;
+            }
+            if (exchange.method().equalsIgnoreCase(method)) {
+                if (samePath == null && exchange.path().equals(path)) {
+                    samePath = exchange;
+                }
+                if (sameName == null) {
+                    sameName = exchange;
+                }
+            }
+        }
+        if (samePath == null && sameName != null && matchName) {
+            log.warn(
+                    "⚠️ Replaying {} {} with the fixture for {} (backend.replay.matchName)",
+                    method,
+                    path,
+                    sameName.path());
+            return sameName;
+        }
+        return samePath;
+    }
+
+    // Error body for a request without a fixture, also logged so the gap is visible in the run output
+    private static String unmatched(String tenant, String method, String path, String body) {
+        log.error("❌ No backend fixture for {} {} ({}), body: {}", method, path, tenant, body);
+        return new JSONObject()
+                .put("error", "no fixture")
+                .put("tenant", tenant)
+                .put("method", method)
+                .put("path", path)
+                .put("body", body == null ? JSONObject.NULL : body)
+                .toString();
+    }
+
+    private static void delay(Exchange exchange) {
+        long ms = LATENCY_MS == RECORDED_LATENCY ? exchange.timeMs() : LATENCY_MS;
+        if (ms > 0) {
+            try {
+                Thread.sleep(ms);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static Map<String, List<Exchange>> fixtures(String tenant) {
+        return fixtures.computeIfAbsent(tenant, BackendMock::load);
+    }
+
+    private static Map<String, List<Exchange>> load(String tenant) {
+        Map<String, List<Exchange>> byEndpoint = new HashMap<>();
+        Path dir = DIR.resolve(tenant);
+        if (!Files.isDirectory(dir)) {
+            log.warn("⚠️ No backend fixtures for {} in {}, record them with -Dbackend.mode=record", tenant, dir);
+            return byEndpoint;
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.json")) {
+            for (Path file : files) {
+                JSONObject json = new JSONObject(Files.readString(file));
+                List<Exchange> exchanges = new ArrayList<>();
+                JSONArray entries = json.getJSONArray("entries");
+                for (int i = 0; i < entries.length(); i++) {
+                    exchanges.add(fromHar(entries.getJSONObject(i)));
+                }
+                byEndpoint.put(json.getString("endpoint"), exchanges);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Error reading backend fixtures: " + e.getMessage(), e);
+        }
+        log.info("✅ Loaded backend fixtures for {}: {}", tenant, byEndpoint.keySet());
+        return byEndpoint;
+    }
+
+    // Merges what this run recorded into the fixture files
+    public static synchronized void flush() {
+        for (Map.Entry<String, Map<String, List<Exchange>>> tenant : recorded.entrySet()) {
+            Path dir = DIR.resolve(tenant.getKey());
+            for (Map.Entry<String, List<Exchange>> endpoint : tenant.getValue().entrySet()) {
+                Path file = dir.resolve(endpoint.getKey().replaceAll("[^A-Za-z0-9._-]", "_") + ".json");
+                try {
+                    Files.createDirectories(dir);
+                    List<Exchange> merged = new ArrayList<>(endpoint.getValue());
+                    if (Files.exists(file)) {
+                        JSONArray old = new JSONObject(Files.readString(file)).getJSONArray("entries");
+                        for (int i = 0; i < old.length() && merged.size() < MAX_PER_ENDPOINT; i++) {
+                            Exchange previous = fromHar(old.getJSONObject(i));
+                            if (merged.stream().noneMatch(e -> e.sameRequest(
+                                    previous.method(), previous.path(), previous.requestBody()))) {
+                                merged.add(previous);
+                            }
+                        }
+                    }
+
+                    JSONArray entries = new JSONArray();
+                    merged.forEach(e -> entries.put(toHar(e)));
+                    JSONObject json = new JSONObject()
+                            .put("tenant", tenant.getKey())
+                            .put("endpoint", endpoint.getKey())
+                            .put("entries", entries);
+
+                    Path tmp = Files.createTempFile(dir, endpoint.getKey(), ".tmp");
+                    Files.writeString(tmp, json.toString(2));
+                    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (Exception e) {
+                    log.warn("⚠️ Could not write fixture {}: {}", file, e.getMessage());
+                }
+            }
+        }
+        if (!recorded.isEmpty()) {
+            log.info("✅ Backend fixtures written to {}", DIR);
+        }
+    }
+
+    private static JSONObject toHar(Exchange e) {
+        JSONObject request = new JSONObject().put("method", e.method()).put("url", e.path());
+        if (e.requestBody() != null) {
+            request.put("postData", new JSONObject().put("mimeType", "application/json").put("text", e.requestBody()));
+        }
+        JSONArray headers = new JSONArray();
+        if (e.authorization() != null) {
+            headers.put(new JSONObject().put("name", "authorization").put("value", e.authorization()));
+        }
+        JSONObject response = new JSONObject()
+                .put("status", e.status())
+                .put("headers", headers)
+                .put("content", new JSONObject().put("mimeType", e.contentType()).put("text", e.responseBody()));
+        return new JSONObject().put("time", e.timeMs()).put("request", request).put("response", response);
+    }
+
+    private static Exchange fromHar(JSONObject entry) {
+        JSONObject request = entry.getJSONObject("request");
+        JSONObject response = entry.getJSONObject("response");
+        JSONObject postData = request.optJSONObject("postData");
+        JSONObject content = response.getJSONObject("content");
+        String authorization = null;
+        JSONArray headers = response.optJSONArray("headers");
+        for (int i = 0; headers != null && i < headers.length(); i++) {
+            if ("authorization".equalsIgnoreCase(headers.getJSONObject(i).optString("name"))) {
+                authorization = headers.getJSONObject(i).optString("value");
+            }
+        }
+        return new Exchange(
+                request.getString("method"),
+                request.getString("url"),
+                postData == null ? null : postData.optString("text", null),
+                response.getInt("status"),
+                content.optString("mimeType", "application/json"),
+                authorization,
+                content.optString("text", ""),
+                entry.optLong("time"));
+    }
+
+    private static String pathOf(String url, String baseUrl) {
+        return url.startsWith(baseUrl) ? url.substring(baseUrl.length()) : URI.create(url).getRawPath();
+    }
+
+    // Same naming as ApiCall.name(): last path segment, trailing slash and query ignored
+    static String endpointName(String path) {
+        String p = path.split("\\?")[0];
+        p = p.endsWith("/") ? p.substring(0, p.length() - 1) : p;
+        return p.substring(p.lastIndexOf('/') + 1);
+    }
+
+    // JSON bodies compare by content, not formatting
+    private static String normalize(String body) {
+        if (body == null || body.isBlank()) {
+            return null;
+        }
+        try {
+            return new JSONObject(body).toString();
+        } catch (JSONException e) {
+            return body.strip();
+        }
+    }
+}
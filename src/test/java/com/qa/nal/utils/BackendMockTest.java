@@ -0,0 +1,60 @@
+package com.qa.nal.utils;
+
+import java.util.List;
+import org.junit.jupiter.api.*;
+
+class BackendMockTest {
+
+    private static BackendMock.Exchange exchange(String method, String path, String body, String response) {
+        return new BackendMock.Exchange(method, path, body, 200, "application/json", null, response, 10);
+    }
+
+    private final List<BackendMock.Exchange> obs = List.of(
+            exchange("GET", "/data/obs/123", null, "{\"id\":123}"),
+            exchange("POST", "/data/search/obs", "{\"q\":\"a\"}", "{\"hits\":[\"a\"]}"),
+            exchange("POST", "/data/search/obs", "{\"q\":\"b\"}", "{\"hits\":[\"b\"]}"));
+
+    @Test
+    void exactRequestWins() {
+        BackendMock.Exchange match = BackendMock.match(obs, "POST", "/data/search/obs", "{ \"q\": \"b\" }", false);
+
+        Assertions.assertEquals("{\"hits\":[\"b\"]}", match.responseBody());
+    }
+
+    @Test
+    void samePathWithOtherBodyStillMatches() {
+        BackendMock.Exchange match = BackendMock.match(obs, "POST", "/data/search/obs", "{\"q\":\"c\"}", false);
+
+        Assertions.assertEquals("/data/search/obs", match.path());
+    }
+
+    @Test
+    void otherPathWithSameLastSegmentDoesNotMatch() {
+        List<BackendMock.Exchange> fixtures = List.of(exchange("GET", "/data/other/123", null, "{}"));
+
+        Assertions.assertNull(BackendMock.match(fixtures, "GET", "/data/obs/123", null, false));
+    }
+
+    @Test
+    void nameOnlyFallbackIsOptIn() {
+        List<BackendMock.Exchange> fixtures = List.of(exchange("GET", "/data/other/123", null, "{}"));
+
+        Assertions.assertEquals(
+                "/data/other/123", BackendMock.match(fixtures, "GET", "/data/obs/123", null, true).path());
+    }
+
+    @Test
+    void methodMustMatch() {
+        Assertions.assertNull(BackendMock.match(obs, "DELETE", "/data/obs/123", null, true));
+    }
+
+    @Test
+    void latencyIsValidatedUpFront() {
+        Assertions.assertEquals(0, BackendMock.resolveLatency("none"));
+        Assertions.assertEquals(-1, BackendMock.resolveLatency("recorded"));
+        Assertions.assertEquals(250, BackendMock.resolveLatency("250ms"));
+        Assertions.assertEquals(250, BackendMock.resolveLatency(" 250 "));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BackendMock.resolveLatency("slow"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BackendMock.resolveLatency("-5"));
+    }
+}
@@ -0,0 +1,220 @@
+package com.qa.nal.utils;
+
+import com.microsoft.playwright.*;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.slf4j.*;
+
+// Warm Chromium processes leased out one thread at a time; tests get fresh, cheap BrowserContexts from a lease.
+// Playwright objects aren't thread-safe, so a browser is only ever driven by the thread currently holding it.
+public class BrowserPool {
+
+    private static final Logger log = LoggerFactory.getLogger(BrowserPool.class);
+
+    // Rough resident cost of one Chromium with a couple of contexts
+    private static final long BYTES_PER_BROWSER = 600L * 1024 * 1024;
+
+    // How long a waiting acquire() sleeps before checking again whether a crashed browser freed a launch
+    private static final long WAIT_STEP_MS = 1000;
+
+    private static volatile BrowserPool shared;
+
+    private final int size;
+    private final Supplier<Playwright> playwrights;
+    private final Function<Playwright, Browser> browsers;
+    private final BlockingQueue<Slot> idle;
+    private final List<Slot> all = new ArrayList<>();
+    private final AtomicInteger launched = new AtomicInteger();
+
+    private static final class Slot {
+        final Playwright playwright;
+        final Browser browser;
+
+        Slot(Playwright playwright, Browser browser) {
+            this.playwright = playwright;
+            this.browser = browser;
+        }
+    }
+
+    public static final class Lease implements AutoCloseable {
+        private final BrowserPool pool;
+        private final Slot slot;
+        private final List<BrowserContext> contexts = new ArrayList<>();
+        private boolean released;
+
+        private Lease(BrowserPool pool, Slot slot) {
+            this.pool = pool;
+            this.slot = slot;
+        }
+
+        public Playwright playwright() {
+            return slot.playwright;
+        }
+
+        public Browser browser() {
+            return slot.browser;
+        }
+
+        // Contexts opened through the lease are closed when it is returned
+        public BrowserContext newContext(Browser.NewContextOptions options) {
+            BrowserContext context = slot.browser.newContext(options);
+            contexts.add(context);
+            return context;
+        }
+
+        @Override
+        public void close() {
+            if (released) {
+                return;
+            }
+            released = true;
+            for (BrowserContext context : contexts) {
+                try {
+                    context.close();
+                } catch (PlaywrightException e) {
+                    log.debug("Context already closed: {}", e.getMessage());
+                }
+            }
+            contexts.clear();
+            pool.release(slot);
+        }
+    }
+
+    // Size from -Dbrowser.pool.size, otherwise bounded by cores and physical memory
+    public static BrowserPool shared() {
+        if (shared == null) {
+            synchronized (BrowserPool.class) {
+                if (shared == null) {
+                    shared = new BrowserPool(Integer.getInteger("browser.pool.size", defaultSize()));
+                    Runtime.getRuntime().addShutdownHook(new Thread(shared::shutdown, "browser-pool-shutdown"));
+                }
+            }
+        }
+        return shared;
+    }
+
+    public static int defaultSize() {
+        return capacity(BYTES_PER_BROWSER, 1);
+    }
+
+    // Browsers this machine can run at `bytesEach`, at most `perCore` per core
+    public static int capacity(long bytesEach, int perCore) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        long memory = Runtime.getRuntime().maxMemory();
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            memory = os.getTotalMemorySize();
+        }
+        // Leave half the machine for the JVM, the OS and the app under test
+        int byMemory = (int) (memory / 2 / bytesEach);
+        return Math.max(1, Math.min(cores * perCore, byMemory));
+    }
+
+    public BrowserPool(int size) {
+        this(
+                size,
+                Playwright::create,
+                playwright -> playwright.chromium().launch(ExecutionProfile.current().launchOptions()));
+    }
+
+    BrowserPool(int size, Supplier<Playwright> playwrights, Function<Playwright, Browser> browsers) {
+        this.size = Math.max(1, size);
+        this.idle = new ArrayBlockingQueue<>(this.size);
+        this.playwrights = playwrights;
+        this.browsers = browsers;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Launch browsers ahead of time so the first tests don't pay for process start-up
+    public void warmUp(int count) {
+        List<Lease> leases = new ArrayList<>();
+        for (int i = 0; i < Math.min(count, size); i++) {
+            leases.add(acquire());
+        }
+        leases.forEach(Lease::close);
+    }
+
+    public Lease acquire() {
+        Slot slot = idle.poll();
+        long waitingSince = System.currentTimeMillis();
+        long loggedAt = waitingSince;
+        try {
+            while (slot == null) {
+                // Checked on every pass: a crashed browser that was discarded frees its launch for a waiting thread
+                if (launched.getAndUpdate(n -> n < size ? n + 1 : n) < size) {
+                    slot = launch();
+                    break;
+                }
+                slot = idle.poll(WAIT_STEP_MS, TimeUnit.MILLISECONDS);
+                if (slot == null && System.currentTimeMillis() - loggedAt >= 30_000) {
+                    loggedAt = System.currentTimeMillis();
+                    log.info(
+                            "Waiting for a free browser for {}s ({} in use)",
+                            (loggedAt - waitingSince) / 1000,
+                            size);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a browser", e);
+        }
+        return new Lease(this, slot);
+    }
+
+    private Slot launch() {
+        try {
+            Playwright playwright = playwrights.get();
+            Browser browser = browsers.apply(playwright);
+            Slot slot = new Slot(playwright, browser);
+            synchronized (all) {
+                all.add(slot);
+            }
+            log.info("Browser {}/{} launched", launched.get(), size);
+            return slot;
+        } catch (RuntimeException e) {
+            launched.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void release(Slot slot) {
+        // A crashed browser is discarded; the next (or a waiting) acquire launches a replacement
+        if (!slot.browser.isConnected()) {
+            discard(slot);
+            launched.decrementAndGet();
+            return;
+        }
+        idle.offer(slot);
+    }
+
+    private void discard(Slot slot) {
+        synchronized (all) {
+            all.remove(slot);
+        }
+        try {
+            slot.playwright.close();
+        } catch (Exception e) {
+            log.debug("Error closing Playwright: {}", e.getMessage());
+        }
+    }
+
+    public void shutdown() {
+        List<Slot> slots;
+        synchronized (all) {
+            slots = new ArrayList<>(all);
+        }
+        for (Slot slot : slots) {
+            discard(slot);
+        }
+        idle.clear();
+    }
+}
@@ -0,0 +1,94 @@
+package com.qa.nal.utils;
+
+import com.microsoft.playwright.*;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.*;
+
+class BrowserPoolTest {
+
+    // Browser stand-ins whose connection can be cut, so no Chromium is needed
+    private final Map<Browser, AtomicBoolean> connected = new ConcurrentHashMap<>();
+    private final AtomicInteger launches = new AtomicInteger();
+
+    private BrowserPool pool(int size) {
+        return new BrowserPool(size, () -> fake(Playwright.class, null), playwright -> {
+            launches.incrementAndGet();
+            AtomicBoolean up = new AtomicBoolean(true);
+            Browser browser = fake(Browser.class, up);
+            connected.put(browser, up);
+            return browser;
+        });
+    }
+
+    private static <T> T fake(Class<T> type, AtomicBoolean up) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) ->
+                switch (method.getName()) {
+                    case "isConnected" -> up.get();
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> type.getSimpleName() + "@" + System.identityHashCode(proxy);
+                    default -> null;
+                }));
+    }
+
+    @Test
+    void returnedBrowserIsReused() {
+        BrowserPool pool = pool(1);
+        Browser first;
+        try (BrowserPool.Lease lease = pool.acquire()) {
+            first = lease.browser();
+        }
+        try (BrowserPool.Lease lease = pool.acquire()) {
+            Assertions.assertSame(first, lease.browser());
+        }
+        Assertions.assertEquals(1, launches.get());
+    }
+
+    @Test
+    void waitingThreadGetsReplacementForCrashedBrowser() throws Exception {
+        BrowserPool pool = pool(1);
+        BrowserPool.Lease lease = pool.acquire();
+        ExecutorService waiter = Executors.newSingleThreadExecutor();
+        try {
+            Future<BrowserPool.Lease> waiting = waiter.submit(pool::acquire);
+            Thread.sleep(300);
+            Assertions.assertFalse(waiting.isDone(), "Second acquire should wait while the only browser is leased");
+
+            connected.get(lease.browser()).set(false);
+            lease.close();
+
+            BrowserPool.Lease replacement = waiting.get(5, TimeUnit.SECONDS);
+            Assertions.assertNotSame(lease.browser(), replacement.browser());
+            Assertions.assertTrue(replacement.browser().isConnected());
+            Assertions.assertEquals(2, launches.get());
+            replacement.close();
+        } finally {
+            waiter.shutdownNow();
+        }
+    }
+
+    @Test
+    void neverLaunchesMoreThanSize() throws Exception {
+        BrowserPool pool = pool(2);
+        BrowserPool.Lease first = pool.acquire();
+        BrowserPool.Lease second = pool.acquire();
+        ExecutorService waiter = Executors.newSingleThreadExecutor();
+        try {
+            Future<BrowserPool.Lease> waiting = waiter.submit(pool::acquire);
+            Thread.sleep(1500);
+            Assertions.assertFalse(waiting.isDone());
+            Assertions.assertEquals(2, launches.get());
+
+            second.close();
+            Assertions.assertSame(second.browser(), waiting.get(5, TimeUnit.SECONDS).browser());
+            Assertions.assertEquals(2, launches.get());
+        } finally {
+            first.close();
+            waiter.shutdownNow();
+        }
+    }
+}
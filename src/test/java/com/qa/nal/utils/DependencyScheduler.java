@@ -0,0 +1,326 @@
+package com.qa.nal.utils;
+
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.discovery.DiscoverySelectors;
+import org.junit.platform.engine.discovery.MethodSelector;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+import org.slf4j.*;
+
+// Splits an @Order-chained test class into independent branches using @Requires/@Provides, then runs the branches
+// concurrently, each in its own class instance (own browser context). A branch is the chain of state providers
+// leading up to it plus its own tests; branches that need another branch's data wait for it to finish.
+public class DependencyScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(DependencyScheduler.class);
+
+    // Carries empty annotations to fall back on for tests that declare nothing
+    private static final Method NONE = none();
+
+    public record Branch(String name, List<Method> setup, List<Method> tests, Set<String> needs, Set<String> yields) {
+        public List<Method> all() {
+            List<Method> all = new ArrayList<>(setup);
+            all.addAll(tests);
+            return all;
+        }
+    }
+
+    public record BranchResult(Branch branch, TestExecutionSummary summary) {}
+
+    public static List<Branch> plan(Class<?> testClass) {
+        List<Method> tests = new ArrayList<>();
+        for (Method method : testClass.getDeclaredMethods()) {
+            if (method.isAnnotationPresent(Test.class)) {
+                tests.add(method);
+            }
+        }
+        tests.sort(Comparator.comparingInt(DependencyScheduler::order));
+
+        // Capability -> the test that provides it
+        Map<String, Method> stateProviders = new HashMap<>();
+        Map<String, Method> dataProviders = new HashMap<>();
+        for (Method test : tests) {
+            for (String capability : provides(test).value()) {
+                stateProviders.put(capability, test);
+            }
+            for (String capability : provides(test).data()) {
+                dataProviders.put(capability, test);
+            }
+        }
+
+        Map<Method, List<Method>> children = new LinkedHashMap<>();
+        List<Method> roots = new ArrayList<>();
+        for (Method test : tests) {
+            // Hang the test under its latest provider; the others must be further up the same chain
+            Method parent = null;
+            for (String capability : requires(test).value()) {
+                Method provider = stateProviders.get(capability);
+                if (provider == null || order(provider) >= order(test)) {
+                    throw new IllegalStateException(String.format(
+                            "%s requires '%s' but no earlier test provides it", test.getName(), capability));
+                }
+                if (parent == null || order(provider) > order(parent)) {
+                    parent = provider;
+                }
+            }
+            if (parent == null) {
+                roots.add(test);
+            } else {
+                children.computeIfAbsent(parent, k -> new ArrayList<>()).add(test);
+            }
+            for (String capability : requires(test).data()) {
+                if (!dataProviders.containsKey(capability)) {
+                    throw new IllegalStateException(String.format(
+                            "%s requires data '%s' but no test provides it", test.getName(), capability));
+                }
+            }
+        }
+
+        List<Branch> branches = new ArrayList<>();
+        for (Method root : roots) {
+            split(List.of(), root, children, branches);
+        }
+
+        for (Branch branch : branches) {
+            Set<String> available = new HashSet<>();
+            for (Method test : branch.all()) {
+                for (String capability : requires(test).value()) {
+                    if (!available.contains(capability)) {
+                        throw new IllegalStateException(String.format(
+                                "%s requires '%s', which is not set up in branch %s",
+                                test.getName(),
+                                capability,
+                                branch.name()));
+                    }
+                }
+                available.addAll(List.of(provides(test).value()));
+            }
+        }
+        return branches;
+    }
+
+    // Follows single-child links; at every fork each child starts a new branch that reruns the chain so far
+    private static void split(
+            List<Method> setup, Method start, Map<Method, List<Method>> children, List<Branch> branches) {
+        List<Method> own = new ArrayList<>();
+        Method current = start;
+        while (true) {
+            own.add(current);
+            List<Method> next = children.getOrDefault(current, List.of());
+            if (next.size() == 1) {
+                current = next.get(0);
+                continue;
+            }
+            if (next.isEmpty()) {
+                Set<String> needs = new TreeSet<>();
+                Set<String> yields = new TreeSet<>();
+                for (Method test : own) {
+                    needs.addAll(List.of(requires(test).data()));
+                    yields.addAll(List.of(provides(test).data()));
+                }
+                branches.add(new Branch(start.getName(), setup, own, needs, yields));
+                return;
+            }
+
+            List<Method> chain = new ArrayList<>(setup);
+            chain.addAll(own);
+            for (Method child : next) {
+                split(List.copyOf(chain), child, children, branches);
+            }
+            return;
+        }
+    }
+
+    // Branches tied together by data dependencies, which have to run in the same JVM; plan order is kept
+    public static List<List<Branch>> linked(List<Branch> branches) {
+        List<List<Branch>> groups = new ArrayList<>();
+        Map<Branch, List<Branch>> groupOf = new HashMap<>();
+        for (Branch branch : branches) {
+            List<Branch> group = null;
+            for (Branch other : branches) {
+                List<Branch> otherGroup = groupOf.get(other);
+                boolean related = !Collections.disjoint(other.yields(), branch.needs())
+                        || !Collections.disjoint(branch.yields(), other.needs());
+                if (other == branch || otherGroup == null || otherGroup == group || !related) {
+                    continue;
+                }
+                if (group == null) {
+                    group = otherGroup;
+                } else {
+                    // Joins two groups that both turned out to be linked to this branch
+                    group.addAll(otherGroup);
+                    groups.remove(otherGroup);
+                    for (Branch moved : otherGroup) {
+                        groupOf.put(moved, group);
+                    }
+                }
+            }
+            if (group == null) {
+                group = new ArrayList<>();
+                groups.add(group);
+            }
+            group.add(branch);
+            groupOf.put(branch, group);
+        }
+        for (List<Branch> group : groups) {
+            group.sort(Comparator.comparingInt(branches::indexOf));
+        }
+        return groups;
+    }
+
+    public static List<BranchResult> run(Class<?> testClass, Path reportDir, int workers) {
+        return run(testClass, plan(testClass), reportDir, workers);
+    }
+
+    // Runs a subset of plan(testClass), e.g. one shard's share; data dependencies outside the subset are ignored
+    public static List<BranchResult> run(Class<?> testClass, List<Branch> plan, Path reportDir, int workers) {
+        Tenant tenant = TenantRegistry.current();
+
+        // Longest branches first: the pool hands each free worker the longest one left, so workers finish together
+        TestDurations durations = TestDurations.shared();
+        List<Branch> branches = new ArrayList<>(plan);
+        branches.sort(Comparator.comparingLong((Branch branch) -> durations.estimateMs(tenant, branch.all()))
+                .reversed());
+
+        log.info("Running {} branch(es) of {} on {} worker(s)", branches.size(), testClass.getSimpleName(), workers);
+        for (Branch branch : branches) {
+            log.info(
+                    "  {} (~{}s) | setup: {} | tests: {} | waits for: {}",
+                    branch.name(),
+                    durations.estimateMs(tenant, branch.all()) / 1000,
+                    names(branch.setup()),
+                    names(branch.tests()),
+                    branch.needs().isEmpty() ? "-" : branch.needs());
+        }
+
+        // Setup tests rerun in every branch but are reported once per run, by whichever branch gets to them first
+        Set<Method> reported = ConcurrentHashMap.newKeySet();
+
+        // Log in once up front so every branch's setup restores the session from the auth cache
+        List<Method> common = commonSetup(branches);
+        if (!common.isEmpty() && AuthStateCache.validState(tenant) == null) {
+            log.info("Warming the auth state cache with {}", names(common));
+            SuiteLauncher.run(reportDir.resolve("setup"), selectors(testClass, common));
+            reported.addAll(common);
+        }
+
+        Map<Branch, CompletableFuture<BranchResult>> futures = new LinkedHashMap<>();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(workers, branches.size())));
+        try {
+            for (Branch branch : branches) {
+                schedule(branch, branches, futures, new HashSet<>(), reported, pool, testClass, reportDir, tenant);
+            }
+            List<BranchResult> results = new ArrayList<>();
+            for (CompletableFuture<BranchResult> future : futures.values()) {
+                results.add(future.join());
+            }
+            return results;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static CompletableFuture<BranchResult> schedule(
+            Branch branch,
+            List<Branch> branches,
+            Map<Branch, CompletableFuture<BranchResult>> futures,
+            Set<Branch> visiting,
+            Set<Method> reported,
+            ExecutorService pool,
+            Class<?> testClass,
+            Path reportDir,
+            Tenant tenant) {
+        CompletableFuture<BranchResult> existing = futures.get(branch);
+        if (existing != null) {
+            return existing;
+        }
+
+        if (!visiting.add(branch)) {
+            throw new IllegalStateException("Data dependency cycle through branch " + branch.name());
+        }
+
+        // A failed dependency doesn't stop the branch, just as a failed test doesn't stop the @Order chain
+        List<CompletableFuture<BranchResult>> dependencies = new ArrayList<>();
+        for (Branch other : branches) {
+            if (other != branch && !Collections.disjoint(other.yields(), branch.needs())) {
+                dependencies.add(
+                        schedule(other, branches, futures, visiting, reported, pool, testClass, reportDir, tenant));
+            }
+        }
+
+        CompletableFuture<BranchResult> future = CompletableFuture.allOf(
+                        dependencies.toArray(CompletableFuture[]::new))
+                .handle((ignored, error) -> null)
+                .thenApplyAsync(
+                        ignored -> TenantRegistry.runAs(tenant, () -> {
+                            log.info("▶ Branch {} started", branch.name());
+                            List<Method> unreported = branch.setup().stream()
+                                    .filter(setup -> !reported.add(setup))
+                                    .toList();
+                            TestExecutionSummary summary = SuiteLauncher.run(
+                                    reportDir.resolve(branch.name()), selectors(testClass, branch.all()), unreported);
+                            return new BranchResult(branch, summary);
+                        }),
+                        pool);
+        futures.put(branch, future);
+        return future;
+    }
+
+    private static List<Method> commonSetup(List<Branch> branches) {
+        if (branches.isEmpty()) {
+            return List.of();
+        }
+        List<Method> common = new ArrayList<>(branches.get(0).setup());
+        for (Branch branch : branches) {
+            int i = 0;
+            while (i < common.size() && i < branch.setup().size() && common.get(i).equals(branch.setup().get(i))) {
+                i++;
+            }
+            common = new ArrayList<>(common.subList(0, i));
+        }
+        return common;
+    }
+
+    private static List<MethodSelector> selectors(Class<?> testClass, List<Method> methods) {
+        List<MethodSelector> selectors = new ArrayList<>();
+        for (Method method : methods) {
+            selectors.add(DiscoverySelectors.selectMethod(testClass, method));
+        }
+        return selectors;
+    }
+
+    private static List<String> names(List<Method> methods) {
+        return methods.stream().map(Method::getName).toList();
+    }
+
+    private static int order(Method method) {
+        Order order = method.getAnnotation(Order.class);
+        return order == null ? Integer.MAX_VALUE : order.value();
+    }
+
+    private static Requires requires(Method method) {
+        Requires requires = method.getAnnotation(Requires.class);
+        return requires != null ? requires : NONE.getAnnotation(Requires.class);
+    }
+
+    private static Provides provides(Method method) {
+        Provides provides = method.getAnnotation(Provides.class);
+        return provides != null ? provides : NONE.getAnnotation(Provides.class);
+    }
+
+    @Requires
+    @Provides
+    private static void empty() {}
+
+    private static Method none() {
+        try {
+            return DependencyScheduler.class.getDeclaredMethod("empty");
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.qa.nal.utils;
+
+import com.microsoft.playwright.*;
+import java.util.*;
+import java.util.function.Predicate;
+import org.json.*;
+
+// Text, visibility and selected attributes of every element a locator matches, read in one evaluateAll instead of
+// a textContent()/isVisible() round trip per element. Nodes keep their match index, so picking one and clicking it
+// goes through locator.nth(index) without querying the list again.
+public class DomSnapshot {
+
+    private static final String EXTRACT_JS = """
+            (elements, attributes) => JSON.stringify(elements.map(el => {
+                const style = getComputedStyle(el);
+                const attrs = {};
+                for (const name of attributes) {
+                    const value = el.getAttribute(name);
+                    if (value !== null) attrs[name] = value;
+                }
+                return {
+                    text: (el.textContent || '').trim(),
+                    visible: el.getClientRects().length > 0 && style.visibility !== 'hidden',
+                    checked: el.checked === true,
+                    attributes: attrs,
+                };
+            }))
+            """;
+
+    public record Node(int index, String text, boolean visible, boolean checked, Map<String, String> attributes) {
+        public String attribute(String name) {
+            return attributes.get(name);
+        }
+    }
+
+    public record Snapshot(Locator locator, List<Node> nodes) {
+        public int size() {
+            return nodes.size();
+        }
+
+        public boolean isEmpty() {
+            return nodes.isEmpty();
+        }
+
+        public List<String> texts() {
+            return nodes.stream().map(Node::text).toList();
+        }
+
+        public List<Node> visible() {
+            return nodes.stream().filter(Node::visible).toList();
+        }
+
+        public Optional<Node> first(Predicate<Node> condition) {
+            return nodes.stream().filter(condition).findFirst();
+        }
+
+        // Random visible node, or any node when none reports visible (e.g. zero-size option rows)
+        public Node random(Random random) {
+            if (nodes.isEmpty()) {
+                throw new NoSuchElementException("No elements match " + locator);
+            }
+            List<Node> candidates = visible().isEmpty() ? nodes : visible();
+            return candidates.get(random.nextInt(candidates.size()));
+        }
+
+        public Locator locator(Node node) {
+            return locator.nth(node.index());
+        }
+
+        public void click(Node node) {
+            locator(node).click();
+        }
+    }
+
+    public static Snapshot of(Page page, String selector, String... attributes) {
+        return of(page.locator(selector), attributes);
+    }
+
+    public static Snapshot of(Locator locator, String... attributes) {
+        Object json = locator.evaluateAll(EXTRACT_JS, List.of(attributes));
+        JSONArray array = new JSONArray(String.valueOf(json));
+
+        List<Node> nodes = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject node = array.getJSONObject(i);
+            JSONObject attrs = node.getJSONObject("attributes");
+            Map<String, String> values = new LinkedHashMap<>();
+            for (String name : attrs.keySet()) {
+                values.put(name, attrs.getString(name));
+            }
+            nodes.add(new Node(
+                    i, node.getString("text"), node.getBoolean("visible"), node.getBoolean("checked"), values));
+        }
+        return new Snapshot(locator, List.copyOf(nodes));
+    }
+}
@@ -0,0 +1,156 @@
+package com.qa.nal.utils;
+
+import com.microsoft.playwright.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import org.slf4j.*;
+
+// Named browser settings for a run, picked with -Dprofile=ci-fast or EXECUTION_PROFILE=ci-fast (default: local).
+// -Dheadless and -DslowMo still override the profile for one-off runs. Only debug traces whole classes; every other
+// profile keeps FailureCapture's failure-only traces.
+public enum ExecutionProfile {
+    // Plain `mvn test` and IDE runs: headed so they can be watched, but no slowMo and no whole-class tracing
+    LOCAL("local", false, 0, 1440, 900, false, 45000, 45000, false),
+
+    // Opt-in for stepping through a problem: headed, slowed down, traced
+    DEBUG("debug", false, 50, 1440, 900, false, 45000, 45000, true),
+
+    // CI: headless, no slowMo, software rendering, tighter action timeout
+    CI_FAST("ci-fast", true, 0, 1280, 800, true, 30000, 45000, false),
+
+    // Many browsers at once (soak/load): smallest viewport, generous timeouts for a busy backend
+    LOAD("load", true, 0, 1024, 768, true, 60000, 90000, false);
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutionProfile.class);
+
+    public static final Path TRACE_DIR = Paths.get("target", "traces");
+
+    private static final List<String> NO_GPU_ARGS =
+            List.of("--disable-gpu", "--disable-dev-shm-usage", "--disable-extensions", "--mute-audio");
+
+    private static volatile ExecutionProfile current;
+
+    private final String id;
+    private final boolean headless;
+    private final double slowMo;
+    private final int viewportWidth;
+    private final int viewportHeight;
+    private final boolean disableGpu;
+    private final double defaultTimeoutMs;
+    private final double navigationTimeoutMs;
+    private final boolean tracing;
+
+    ExecutionProfile(
+            String id,
+            boolean headless,
+            double slowMo,
+            int viewportWidth,
+            int viewportHeight,
+            boolean disableGpu,
+            double defaultTimeoutMs,
+            double navigationTimeoutMs,
+            boolean tracing) {
+        this.id = id;
+        this.headless = headless;
+        this.slowMo = slowMo;
+        this.viewportWidth = viewportWidth;
+        this.viewportHeight = viewportHeight;
+        this.disableGpu = disableGpu;
+        this.defaultTimeoutMs = defaultTimeoutMs;
+        this.navigationTimeoutMs = navigationTimeoutMs;
+        this.tracing = tracing;
+    }
+
+    public static ExecutionProfile current() {
+        if (current == null) {
+            String name = System.getProperty("profile", System.getenv("EXECUTION_PROFILE"));
+            current = of(name);
+            log.info(
+                    "✅ Execution profile: {} (headless={}, slowMo={}ms, tracing={})",
+                    current.id,
+                    current.headless(),
+                    current.slowMo(),
+                    current.tracing);
+        }
+        return current;
+    }
+
+    public static ExecutionProfile of(String name) {
+        if (name == null || name.isBlank()) {
+            return LOCAL;
+        }
+        for (ExecutionProfile profile : values()) {
+            if (profile.id.equalsIgnoreCase(name.trim()) || profile.name().equalsIgnoreCase(name.trim())) {
+                return profile;
+            }
+        }
+        throw new IllegalArgumentException(
+                "Unknown profile '" + name + "'. Expected one of: local, debug, ci-fast, load");
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public boolean headless() {
+        String override = System.getProperty("headless");
+        return override == null || override.isBlank() ? headless : Boolean.parseBoolean(override);
+    }
+
+    public double slowMo() {
+        String override = System.getProperty("slowMo");
+        return override == null || override.isBlank() ? slowMo : Double.parseDouble(override);
+    }
+
+    public boolean tracing() {
+        return tracing;
+    }
+
+    public BrowserType.LaunchOptions launchOptions() {
+        BrowserType.LaunchOptions options =
+                new BrowserType.LaunchOptions().setHeadless(headless()).setSlowMo(slowMo());
+        if (disableGpu) {
+            options.setArgs(NO_GPU_ARGS);
+        }
+        return options;
+    }
+
+    public Browser.NewContextOptions contextOptions() {
+        return new Browser.NewContextOptions().setViewportSize(viewportWidth, viewportHeight);
+    }
+
+    public void apply(Page page) {
+        page.setDefaultTimeout(defaultTimeoutMs);
+        page.setDefaultNavigationTimeout(navigationTimeoutMs);
+    }
+
+    public void startTracing(BrowserContext context) {
+        if (tracing) {
+            context.tracing()
+                    .start(new Tracing.StartOptions()
+                            .setScreenshots(true)
+                            .setSnapshots(true)
+                            .setSources(true));
+        }
+    }
+
+    // target/traces/<name>.zip, viewable with `npx playwright show-trace`
+    public void stopTracing(BrowserContext context, String name) {
+        if (!tracing) {
+            return;
+        }
+        try {
+            Path trace = TRACE_DIR.resolve(name + ".zip");
+            context.tracing().stop(new Tracing.StopOptions().setPath(trace));
+            log.info("Trace saved: {}", trace);
+        } catch (PlaywrightException e) {
+            log.warn("⚠️ Could not save trace: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return id;
+    }
+}
@@ -0,0 +1,215 @@
+package com.qa.nal.utils;
+
+import com.microsoft.playwright.*;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.extension.*;
+import org.slf4j.*;
+
+// Per-test Playwright trace chunks that are thrown away when the test passes. A failing test keeps its trace.zip,
+// a full-page screenshot and the DOM under target/failures/<tenant>/, which is pruned oldest-first to stay within
+// -Dfailure.retention.mb (default 200). Disable with -Dfailure.capture=false.
+public class FailureCapture implements BeforeEachCallback, AfterTestExecutionCallback {
+
+    private static final Logger log = LoggerFactory.getLogger(FailureCapture.class);
+
+    public static final Path REPORT_DIR = Paths.get("target", "failures");
+
+    private static final long RETENTION_BYTES = Long.getLong("failure.retention.mb", 200) * 1024 * 1024;
+
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    // JUnit unique id of a failed test -> its artifact directory, for reporters that attach them
+    private static final Map<String, Path> artifacts = new ConcurrentHashMap<>();
+
+    // Contexts tracing for us, as opposed to the debug profile's whole-class trace
+    private static final Set<BrowserContext> chunked = ConcurrentHashMap.newKeySet();
+
+    // Implemented by test classes that have a browser to capture
+    public interface Source {
+        Tenant tenant();
+
+        BrowserContext captureContext();
+
+        Page capturePage();
+    }
+
+    public static boolean enabled() {
+        return Boolean.parseBoolean(System.getProperty("failure.capture", "true"));
+    }
+
+    // Once per context; the chunks per test follow in beforeEach
+    public static void startTracing(BrowserContext context) {
+        if (!enabled()) {
+            return;
+        }
+        try {
+            context.tracing().start(new Tracing.StartOptions().setScreenshots(true).setSnapshots(true));
+            chunked.add(context);
+        } catch (PlaywrightException e) {
+            log.warn("⚠️ Failure tracing not started: {}", e.getMessage());
+        }
+    }
+
+    public static void forget(BrowserContext context) {
+        chunked.remove(context);
+    }
+
+    // Files kept for a failed test (empty when it passed or nothing was captured); removes the entry
+    public static List<Path> takeArtifacts(String uniqueId) {
+        Path dir = artifacts.remove(uniqueId);
+        if (dir == null || !Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(Files::isRegularFile).sorted().toList();
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext extension) {
+        BrowserContext context = source(extension).map(Source::captureContext).orElse(null);
+        if (context == null || !chunked.contains(context)) {
+            return;
+        }
+        try {
+            context.tracing().startChunk(new Tracing.StartChunkOptions().setTitle(extension.getDisplayName()));
+        } catch (PlaywrightException e) {
+            log.debug("Trace chunk not started: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext extension) {
+        Optional<Source> found = source(extension);
+        if (found.isEmpty() || !enabled()) {
+            return;
+        }
+        Source source = found.get();
+        BrowserContext context = source.captureContext();
+        Optional<Throwable> failure = extension.getExecutionException();
+
+        if (failure.isEmpty()) {
+            // ✅ Green test: drop the chunk without writing anything
+            if (context != null && chunked.contains(context)) {
+                try {
+                    context.tracing().stopChunk();
+                } catch (PlaywrightException e) {
+                    log.debug("Trace chunk not discarded: {}", e.getMessage());
+                }
+            }
+            return;
+        }
+
+        String test = extension.getRequiredTestClass().getSimpleName() + "-"
+                + extension.getTestMethod().map(m -> m.getName()).orElse("test");
+        Path dir = REPORT_DIR.resolve(source.tenant().name()).resolve(test + "-" + LocalDateTime.now().format(STAMP));
+        try {
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve("error.txt"), stackTrace(failure.get()));
+        } catch (IOException e) {
+            log.warn("⚠️ Could not create {}: {}", dir, e.getMessage());
+            return;
+        }
+
+        if (context != null && chunked.contains(context)) {
+            capture("trace", () -> context.tracing()
+                    .stopChunk(new Tracing.StopChunkOptions().setPath(dir.resolve("trace.zip"))));
+        }
+        Page page = source.capturePage();
+        if (page != null && !page.isClosed()) {
+            capture("screenshot", () -> page.screenshot(
+                    new Page.ScreenshotOptions().setPath(dir.resolve("screenshot.png")).setFullPage(true)));
+            capture("DOM", () -> Files.writeString(
+                    dir.resolve("dom.html"), page.url().isEmpty() ? "" : page.content(), StandardCharsets.UTF_8));
+        }
+        log.error("❌ {} failed, artifacts kept in {}", test, dir);
+        artifacts.put(extension.getUniqueId(), dir);
+
+        prune();
+    }
+
+    private interface Capture {
+        void run() throws Exception;
+    }
+
+    private static void capture(String what, Capture capture) {
+        try {
+            capture.run();
+        } catch (Exception e) {
+            log.warn("⚠️ Could not capture {}: {}", what, e.getMessage());
+        }
+    }
+
+    private static Optional<Source> source(ExtensionContext extension) {
+        return extension.getTestInstance().filter(Source.class::isInstance).map(Source.class::cast);
+    }
+
+    // Oldest failure directories go first once the total exceeds the retention budget
+    private static synchronized void prune() {
+        try (Stream<Path> tenants = Files.list(REPORT_DIR)) {
+            List<Path> dirs = new ArrayList<>();
+            for (Path tenant : tenants.filter(Files::isDirectory).toList()) {
+                try (Stream<Path> failures = Files.list(tenant)) {
+                    failures.filter(Files::isDirectory).forEach(dirs::add);
+                }
+            }
+            dirs.sort(Comparator.comparingLong(FailureCapture::modified));
+
+            Map<Path, Long> sizes = new HashMap<>();
+            long total = 0;
+            for (Path dir : dirs) {
+                long size = size(dir);
+                sizes.put(dir, size);
+                total += size;
+            }
+            // Always keep the newest one, even when it alone is over budget
+            for (int i = 0; i < dirs.size() - 1 && total > RETENTION_BYTES; i++) {
+                Path dir = dirs.get(i);
+                delete(dir);
+                total -= sizes.get(dir);
+                log.info("Pruned failure artifacts {}", dir);
+            }
+        } catch (IOException e) {
+            log.warn("⚠️ Could not prune {}: {}", REPORT_DIR, e.getMessage());
+        }
+    }
+
+    private static long modified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long size(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static String stackTrace(Throwable error) {
+        StringWriter out = new StringWriter();
+        error.printStackTrace(new PrintWriter(out));
+        return out.toString();
+    }
+}
@@ -0,0 +1,32 @@
+package com.qa.nal.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.json.JSONObject;
+
+public class Jwt {
+
+    // `exp` claim (epoch seconds) of a JWT, optionally prefixed with "Bearer ", or 0 if the value isn't one
+    public static long expiry(String value) {
+        if (value == null) {
+            return 0;
+        }
+
+        String token = value.trim().replace("\"", "");
+        if (token.startsWith("Bearer ")) {
+            token = token.substring(7);
+        }
+
+        String[] parts = token.split("\\.");
+        if (parts.length != 3 || !parts[0].startsWith("eyJ")) {
+            return 0;
+        }
+
+        try {
+            String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+            return new JSONObject(payload).optLong("exp", 0);
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.qa.nal.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.json.*;
+
+// Per tenant/endpoint latency histograms (microsecond resolution), exported as percentile tables, JSON and CSV
+public class LatencyRecorder {
+
+    public static final Path REPORT_DIR = Paths.get("target", "latency-reports");
+
+    private static final double[] PERCENTILES = { 50, 90, 95, 99, 99.9 };
+
+    private static final LatencyRecorder GLOBAL = new LatencyRecorder();
+
+    public record Key(String tenant, String endpoint) {}
+
+    public static final class Series {
+        final Histogram histogram = new ConcurrentHistogram(3);
+        final LongAdder errors = new LongAdder();
+
+        public Histogram histogram() {
+            return histogram;
+        }
+
+        public long errors() {
+            return errors.sum();
+        }
+    }
+
+    private final Map<Key, Series> series = new ConcurrentHashMap<>();
+
+    // Global calls made on this thread since the last drain: endpoint -> {count, errors, total µs, max µs}
+    private static final ThreadLocal<Map<String, long[]>> threadCalls = ThreadLocal.withInitial(LinkedHashMap::new);
+
+    private static final int MAX_THREAD_ENDPOINTS = 200;
+
+    // Everything validateApiStatus measures during the suite
+    public static LatencyRecorder global() {
+        return GLOBAL;
+    }
+
+    public void record(String tenant, String endpoint, long nanos, boolean ok) {
+        Series s = series.computeIfAbsent(new Key(tenant, endpoint), k -> new Series());
+        s.histogram.recordValue(Math.max(1, nanos / 1_000));
+        if (!ok) {
+            s.errors.increment();
+        }
+
+        Map<String, long[]> calls = threadCalls.get();
+        if (this == GLOBAL && (calls.containsKey(endpoint) || calls.size() < MAX_THREAD_ENDPOINTS)) {
+            long[] c = calls.computeIfAbsent(endpoint, k -> new long[4]);
+            c[0]++;
+            c[1] += ok ? 0 : 1;
+            c[2] += nanos / 1_000;
+            c[3] = Math.max(c[3], nanos / 1_000);
+        }
+    }
+
+    // Per endpoint {count, errors, meanMs, maxMs} of the calls this thread made since the last drain
+    public static JSONObject drainThreadCalls() {
+        JSONObject json = new JSONObject();
+        threadCalls.get().forEach((endpoint, c) -> json.put(endpoint, new JSONObject()
+                .put("count", c[0])
+                .put("errors", c[1])
+                .put("meanMs", ms((double) c[2] / c[0]))
+                .put("maxMs", ms(c[3]))));
+        threadCalls.get().clear();
+        return json;
+    }
+
+    public Map<Key, Series> snapshot() {
+        Map<Key, Series> sorted = new TreeMap<>(Comparator.comparing(Key::tenant).thenComparing(Key::endpoint));
+        sorted.putAll(series);
+        return sorted;
+    }
+
+    public boolean isEmpty() {
+        return series.isEmpty();
+    }
+
+    public String percentileTable() {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format(
+                "%n%-14s %-28s %7s %6s %9s %9s %9s %9s %9s %9s%n",
+                "Tenant",
+                "Endpoint",
+                "Count",
+                "Errors",
+                "p50(ms)",
+                "p90(ms)",
+                "p95(ms)",
+                "p99(ms)",
+                "p99.9(ms)",
+                "Max(ms)"));
+
+        for (Map.Entry<Key, Series> entry : snapshot().entrySet()) {
+            Histogram h = entry.getValue().histogram;
+            table.append(String.format(
+                    "%-14s %-28s %7d %6d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    entry.getKey().tenant(),
+                    entry.getKey().endpoint(),
+                    h.getTotalCount(),
+                    entry.getValue().errors(),
+                    ms(h.getValueAtPercentile(50)),
+                    ms(h.getValueAtPercentile(90)),
+                    ms(h.getValueAtPercentile(95)),
+                    ms(h.getValueAtPercentile(99)),
+                    ms(h.getValueAtPercentile(99.9)),
+                    ms(h.getMaxValue())));
+        }
+        return table.toString();
+    }
+
+    // Writes <name>.json (with the encoded histogram, so shards can be merged later) and <name>.csv
+    public synchronized void write(Path dir, String name) {
+        JSONArray endpoints = new JSONArray();
+        StringBuilder csv = new StringBuilder(
+                "tenant,endpoint,count,errors,mean_ms,p50_ms,p90_ms,p95_ms,p99_ms,p999_ms,max_ms\n");
+
+        for (Map.Entry<Key, Series> entry : snapshot().entrySet()) {
+            Histogram h = entry.getValue().histogram.copy();
+            JSONObject json = new JSONObject()
+                    .put("tenant", entry.getKey().tenant())
+                    .put("endpoint", entry.getKey().endpoint())
+                    .put("count", h.getTotalCount())
+                    .put("errors", entry.getValue().errors())
+                    .put("meanMs", ms(h.getMean()))
+                    .put("maxMs", ms(h.getMaxValue()))
+                    .put("histogram", encode(h));
+            JSONObject percentiles = new JSONObject();
+            for (double p : PERCENTILES) {
+                percentiles.put("p" + String.valueOf(p).replace(".0", ""), ms(h.getValueAtPercentile(p)));
+            }
+            json.put("percentilesMs", percentiles);
+            endpoints.put(json);
+
+            csv.append(String.format(
+                    Locale.ROOT,
+                    "%s,%s,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                    entry.getKey().tenant(),
+                    entry.getKey().endpoint(),
+                    h.getTotalCount(),
+                    entry.getValue().errors(),
+                    ms(h.getMean()),
+                    ms(h.getValueAtPercentile(50)),
+                    ms(h.getValueAtPercentile(90)),
+                    ms(h.getValueAtPercentile(95)),
+                    ms(h.getValueAtPercentile(99)),
+                    ms(h.getValueAtPercentile(99.9)),
+                    ms(h.getMaxValue())));
+        }
+
+        JSONObject report = new JSONObject()
+                .put("generatedAt", Instant.now().toString())
+                .put("unit", "ms")
+                .put("endpoints", endpoints);
+
+        try {
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve(name + ".json"), report.toString(2));
+            Files.writeString(dir.resolve(name + ".csv"), csv.toString());
+        } catch (Exception e) {
+            throw new RuntimeException("Error writing latency report: " + e.getMessage(), e);
+        }
+    }
+
+    // Adds a histogram previously written by write(), e.g. from another shard
+    public void merge(String tenant, String endpoint, String encodedHistogram, long errors) {
+        Series s = series.computeIfAbsent(new Key(tenant, endpoint), k -> new Series());
+        s.histogram.add(decode(encodedHistogram));
+        s.errors.add(errors);
+    }
+
+    private static String encode(Histogram h) {
+        ByteBuffer buffer = ByteBuffer.allocate(h.getNeededByteBufferCapacity());
+        int length = h.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+
+    private static Histogram decode(String encoded) {
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(Base64.getDecoder().decode(encoded)), 0);
+        } catch (Exception e) {
+            throw new RuntimeException("Error decoding histogram: " + e.getMessage(), e);
+        }
+    }
+
+    private static double ms(double micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,149 @@
+package com.qa.nal.utils;
+
+import com.qa.nal.utils.ApiClient.ApiCall;
+import com.qa.nal.utils.ApiClient.ApiResult;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import org.json.JSONObject;
+import org.slf4j.*;
+
+// Open-model load: requests start on a fixed arrival schedule whether or not earlier ones have finished,
+// so a slow backend shows up as latency and queueing instead of silently lowering the offered rate.
+// Rates are taken over the arrival window (first to last scheduled arrival), so the in-flight tail after the last
+// send doesn't lower them: sendRps is what the generator offered, completedRps what the backend finished in that
+// window. Each call is recorded twice: "<endpoint>" is the call's own time, "<endpoint> (from schedule)" is measured
+// from its scheduled arrival and so includes the generator's parking and executor queueing.
+public class LoadGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadGenerator.class);
+
+    public record Stage(double targetRps, long durationSeconds) {}
+
+    public record StageResult(
+            Stage stage,
+            long scheduled,
+            long sent,
+            long completed,
+            long errors,
+            long dropped,
+            double sendRps,
+            double completedRps) {}
+
+    private final Tenant tenant;
+    private final Supplier<ApiCall> workload;
+    private final LatencyRecorder recorder;
+    private final int maxInFlight;
+
+    public LoadGenerator(Tenant tenant, Supplier<ApiCall> workload, LatencyRecorder recorder, int maxInFlight) {
+        this.tenant = tenant;
+        this.workload = workload;
+        this.recorder = recorder;
+        this.maxInFlight = maxInFlight;
+    }
+
+    // topObservation and type-ahead-observation with the Manufacturer/Description shape from createNewServiceRequest
+    public static Supplier<ApiCall> predictionWorkload(Tenant tenant, double typeAheadShare) {
+        List<String> descriptions = TestDataRepository.descriptions(TestDataRepository.SR_DESCRIPTIONS, "devdemo");
+        String manufacturer = System.getProperty("load.manufacturer", Objects.toString(tenant.modelSearch(), ""));
+
+        return () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            String payload = new JSONObject()
+                    .put("Manufacturer", manufacturer)
+                    .put("Description", descriptions.get(random.nextInt(descriptions.size())))
+                    .put("N7-client-locale", "en")
+                    .toString();
+
+            if (random.nextDouble() < typeAheadShare) {
+                return new ApiCall(
+                        "POST",
+                        "/data/type-ahead-observation",
+                        String.format("{\"observation\":\"test\",\"predictors\":%s}", payload));
+            }
+            return new ApiCall("POST", "/data/micro-predict-observation/topObservation", payload);
+        };
+    }
+
+    public StageResult run(Stage stage) throws InterruptedException {
+        TokenBroker.token(tenant);
+
+        long intervalNanos = (long) (1_000_000_000L / stage.targetRps());
+        long total = (long) (stage.targetRps() * stage.durationSeconds());
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicLong completed = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        // nanoTime each request finished at, 0 when it didn't; read once the executor has closed
+        long[] finishedAt = new long[(int) total];
+        long sent = 0;
+        long dropped = 0;
+
+        long start = System.nanoTime();
+        // The arrival window ends one interval after the last scheduled arrival, or after the last send if sends fell
+        // behind the schedule
+        long windowEnd = start + total * intervalNanos;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < total; i++) {
+                // Sleep until this request's scheduled arrival, never waiting on earlier responses
+                long due = start + i * intervalNanos;
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                // Past maxInFlight the client itself would become the bottleneck; count it instead of blocking
+                if (!inFlight.tryAcquire()) {
+                    dropped++;
+                    continue;
+                }
+
+                ApiCall call = workload.get();
+                int index = (int) i;
+                sent++;
+                windowEnd = Math.max(windowEnd, System.nanoTime() + intervalNanos);
+                executor.submit(() -> {
+                    try {
+                        ApiResult result = ApiClient.call(tenant, call);
+                        long finished = System.nanoTime();
+                        recorder.record(tenant.name(), call.name(), result.nanos(), result.ok());
+                        recorder.record(tenant.name(), call.name() + " (from schedule)", finished - due, result.ok());
+                        finishedAt[index] = finished;
+                        completed.incrementAndGet();
+                        if (!result.ok()) {
+                            errors.incrementAndGet();
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+
+        long end = windowEnd;
+        long completedInWindow = Arrays.stream(finishedAt).filter(at -> at != 0 && at <= end).count();
+        double windowSeconds = (windowEnd - start) / 1_000_000_000.0;
+        StageResult result = new StageResult(
+                stage,
+                total,
+                sent,
+                completed.get(),
+                errors.get(),
+                dropped,
+                sent / windowSeconds,
+                completedInWindow / windowSeconds);
+
+        log.info(
+                "{} Target: {} rps | Sent: {} rps | Completed: {} rps | Calls: {} | Errors: {} ({}%) | Dropped: {}",
+                result.errors() == 0 && dropped == 0 ? "✅" : "⚠️",
+                stage.targetRps(),
+                String.format("%.1f", result.sendRps()),
+                String.format("%.1f", result.completedRps()),
+                completed.get(),
+                errors.get(),
+                String.format("%.2f", completed.get() == 0 ? 0 : 100.0 * errors.get() / completed.get()),
+                dropped);
+        return result;
+    }
+}
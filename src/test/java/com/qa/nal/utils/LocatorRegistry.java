@@ -0,0 +1,179 @@
+package com.qa.nal.utils;
+
+import com.microsoft.playwright.*;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import org.json.*;
+import org.slf4j.*;
+
+// Logical UI elements with ordered fallback selectors. All candidates are checked in a single in-page evaluation
+// (instead of one isVisible() round trip each), and the winner is remembered per tenant and page so it is tried first.
+public class LocatorRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(LocatorRegistry.class);
+
+    // selector: CSS, or XPath when it starts with // or xpath=
+    // context/excludeText: skip a match whose closest `context` ancestor contains any of these texts
+    public record Candidate(String selector, String context, List<String> excludeText) {
+        public Candidate(String selector) {
+            this(selector, null, List.of());
+        }
+
+        JSONObject toJson() {
+            return new JSONObject()
+                    .put("selector", selector)
+                    .put("context", context == null ? JSONObject.NULL : context)
+                    .put("excludeText", new JSONArray(excludeText));
+        }
+    }
+
+    public record Element(String name, List<Candidate> candidates) {
+        public Element(String name, String... selectors) {
+            this(name, Arrays.stream(selectors).map(Candidate::new).toList());
+        }
+    }
+
+    // Winning candidate and which of its matches was visible
+    public record Resolution(Element element, int candidate, int nth, Locator locator) {
+        public Candidate winner() {
+            return element.candidates().get(candidate);
+        }
+    }
+
+    public static final Element SR_PICKLIST = new Element(
+            "SR picklist",
+            List.of(
+                    new Candidate("ng-select input[type='text']", "ng-select", List.of("English", "Language")),
+                    new Candidate(
+                            "div.form-group textarea[type='text']:not([name='ALARM']):not([name='MAKE'])"
+                                    + ":not([name='TYPE']):not([name='DESCRIPTION'])")));
+
+    public static final Element SR_DESCRIPTION = new Element(
+            "SR description field",
+            "div.form-group div.custom-textarea-wrapper textarea.text-area[type='text']:not([name='ALARM'])"
+                    + ":not([name='MAKE']):not([name='TYPE']):not([name='MODEL'])",
+            "div.form-group textarea[type='text']:not([name='ALARM']):not([name='MAKE']):not([name='TYPE'])"
+                    + ":not([name='MODEL'])");
+
+    public static final Element TYPE_AHEAD_LISTBOX = new Element(
+            "type-ahead listbox",
+            "div[role='listbox'][aria-label='Options List'].ng-dropdown-panel-items",
+            "div.ng-dropdown-panel-items");
+
+    public static final Element NG_SELECT_INPUT = new Element(
+            "ng-select search input",
+            "div ng-select div.ng-select-container div.ng-value-container div.ng-input input[type=\"text\"]");
+
+    // Returns [candidate, nth] of the first visible match, or null; candidates arrive in preferred order
+    private static final String RESOLVE_JS = """
+            candidates => {
+                const query = selector => {
+                    if (selector.startsWith('xpath=') || selector.startsWith('//')) {
+                        const path = selector.startsWith('xpath=') ? selector.substring(6) : selector;
+                        const result = document.evaluate(path, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);
+                        return Array.from({ length: result.snapshotLength }, (_, i) => result.snapshotItem(i));
+                    }
+                    return Array.from(document.querySelectorAll(selector));
+                };
+                const visible = el => {
+                    const style = getComputedStyle(el);
+                    return el.getClientRects().length > 0 && style.visibility !== 'hidden';
+                };
+                for (const c of candidates) {
+                    const matches = query(c.selector);
+                    for (let nth = 0; nth < matches.length; nth++) {
+                        const el = matches[nth];
+                        if (!visible(el)) continue;
+                        if (c.context && c.excludeText.length) {
+                            const text = (el.closest(c.context) || el).textContent || '';
+                            if (c.excludeText.some(t => text.includes(t))) continue;
+                        }
+                        return [c.index, nth];
+                    }
+                }
+                return null;
+            }
+            """;
+
+    // tenant|page path|element -> index of the candidate that won last time
+    private static final Map<String, Integer> winners = new ConcurrentHashMap<>();
+
+    private final Tenant tenant;
+
+    public LocatorRegistry(Tenant tenant) {
+        this.tenant = tenant;
+    }
+
+    // First visible candidate right now, or null (drop-in for the old isVisible() chains)
+    public Locator locate(Page page, Element element) {
+        Resolution resolution = resolve(page, element, 0);
+        return resolution == null ? null : resolution.locator();
+    }
+
+    // Waits up to timeoutMs for any candidate to become visible; throws TimeoutError otherwise
+    public Locator locate(Page page, Element element, double timeoutMs) {
+        Resolution resolution = resolve(page, element, timeoutMs);
+        if (resolution == null) {
+            throw new TimeoutError(String.format("No candidate for '%s' visible within %.0fms", element.name(), timeoutMs));
+        }
+        return resolution.locator();
+    }
+
+    public Resolution resolve(Page page, Element element, double timeoutMs) {
+        String key = tenant.name() + "|" + path(page) + "|" + element.name();
+        JSONArray candidates = ordered(element, winners.get(key));
+
+        Object result;
+        try {
+            if (timeoutMs <= 0) {
+                result = page.evaluate(RESOLVE_JS, candidates.toList());
+            } else {
+                result = page.waitForFunction(
+                                RESOLVE_JS,
+                                candidates.toList(),
+                                new Page.WaitForFunctionOptions().setTimeout(timeoutMs).setPollingInterval(100))
+                        .jsonValue();
+            }
+        } catch (TimeoutError e) {
+            return null;
+        }
+
+        if (!(result instanceof List<?> pair) || pair.size() != 2) {
+            return null;
+        }
+        int candidate = ((Number) pair.get(0)).intValue();
+        int nth = ((Number) pair.get(1)).intValue();
+
+        Integer previous = winners.put(key, candidate);
+        if (previous == null || previous != candidate) {
+            log.debug("'{}' resolved to candidate {} on {}", element.name(), candidate, path(page));
+        }
+
+        String selector = element.candidates().get(candidate).selector();
+        Locator locator = page.locator(selector.startsWith("//") ? "xpath=" + selector : selector).nth(nth);
+        return new Resolution(element, candidate, nth, locator);
+    }
+
+    // Cached winner first, the rest in declared order; each carries its declared index
+    private static JSONArray ordered(Element element, Integer preferred) {
+        JSONArray candidates = new JSONArray();
+        if (preferred != null && preferred < element.candidates().size()) {
+            candidates.put(element.candidates().get(preferred).toJson().put("index", preferred));
+        }
+        for (int i = 0; i < element.candidates().size(); i++) {
+            if (preferred == null || i != preferred) {
+                candidates.put(element.candidates().get(i).toJson().put("index", i));
+            }
+        }
+        return candidates;
+    }
+
+    private static String path(Page page) {
+        try {
+            return URI.create(page.url()).getPath();
+        } catch (IllegalArgumentException e) {
+            return page.url();
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.qa.nal.utils;
+
+import com.microsoft.playwright.*;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.time.Instant;
+import java.util.*;
+import org.json.JSONObject;
+import org.slf4j.*;
+
+// Frontend timings for each module navigation: Navigation Timing and paint/LCP for full loads, render time, long tasks,
+// resources and JS heap for Angular route changes. Appended per tenant and build under build/perf-history and checked
+// against perf-thresholds.properties (-Dperf.enforce=false to only record).
+public class NavigationMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(NavigationMetrics.class);
+
+    private static final Path DIR = Paths.get(System.getProperty("perf.history.dir", "build/perf-history"));
+
+    private static final String THRESHOLDS = "perf-thresholds.properties";
+
+    private static final Properties thresholds = load();
+
+    // Same id as the run history, so both can be lined up per build
+    private static final String BUILD_ID = RunHistory.RUN_ID;
+
+    // A route has rendered once the loading screen is gone and the DOM has then been quiet this long
+    private static final int QUIET_MS = 300;
+
+    // Observers installed before any app script runs; buffered so entries before the first read aren't lost.
+    // Resources are counted by the observer rather than read back from the timeline: Chromium's resource timing buffer
+    // stops at 250 entries, which a long-lived Angular session passes after a few modules.
+    // settledAt is the last DOM change before the first quiet gap after the mark, so pages that keep mutating
+    // (spinners, polling lists) report when they first rendered instead of when the wait gave up.
+    private static final String INIT_JS = """
+            (() => {
+                if (window.__qaPerf) return;
+                const perf = (window.__qaPerf = {
+                    lcp: 0,
+                    longTasks: [],
+                    lastMutation: performance.now(),
+                    lastMutationLoaded: false,
+                    settledAt: null,
+                    mark: 0,
+                    resources: 0,
+                    transferBytes: 0,
+                    marked: { resources: 0, transferBytes: 0 },
+                    observers: {},
+                    flush: () => {},
+                });
+                const observe = (type, onEntry) => {
+                    try {
+                        const observer = new PerformanceObserver(list => list.getEntries().forEach(onEntry));
+                        observer.observe({ type, buffered: true });
+                        perf.observers[type] = { observer, onEntry };
+                    } catch (e) {}
+                };
+                try {
+                    performance.setResourceTimingBufferSize(10000);
+                } catch (e) {}
+                observe('largest-contentful-paint', e => (perf.lcp = e.startTime));
+                observe('longtask', e => perf.longTasks.push([e.startTime, e.duration]));
+                observe('resource', e => {
+                    perf.resources++;
+                    perf.transferBytes += e.transferSize || 0;
+                });
+                // Observer callbacks are async: take what is queued before reading the counters
+                perf.flush = () =>
+                    Object.values(perf.observers).forEach(({ observer, onEntry }) =>
+                        observer.takeRecords().forEach(onEntry));
+                const loading = () => {
+                    const screen = document.querySelector('LOADING_SCREEN');
+                    return !!screen && screen.getClientRects().length > 0;
+                };
+                perf.settle = now => {
+                    if (
+                        perf.settledAt === null &&
+                        perf.lastMutation >= perf.mark &&
+                        perf.lastMutationLoaded &&
+                        now - perf.lastMutation >= QUIET_MS
+                    ) {
+                        perf.settledAt = perf.lastMutation;
+                    }
+                };
+                new MutationObserver(() => {
+                    const now = performance.now();
+                    perf.settle(now);
+                    perf.lastMutation = now;
+                    perf.lastMutationLoaded = !loading();
+                }).observe(document, {
+                    subtree: true,
+                    childList: true,
+                    attributes: true,
+                    characterData: true,
+                });
+            })();
+            """
+            .replace("LOADING_SCREEN", Waits.LOADING_SCREEN)
+            .replace("QUIET_MS", String.valueOf(QUIET_MS));
+
+    private static final String MARK_JS = """
+            () => {
+                const perf = window.__qaPerf;
+                if (!perf) return false;
+                perf.flush();
+                perf.mark = performance.now();
+                perf.settledAt = null;
+                perf.marked = { resources: perf.resources, transferBytes: perf.transferBytes };
+                return true;
+            }
+            """;
+
+    private static final String COLLECT_JS = """
+            () => {
+                const perf = window.__qaPerf || {
+                    lcp: 0,
+                    longTasks: [],
+                    lastMutation: 0,
+                    settledAt: null,
+                    mark: 0,
+                    resources: 0,
+                    transferBytes: 0,
+                    marked: { resources: 0, transferBytes: 0 },
+                    flush: () => {},
+                    settle: () => {},
+                };
+                perf.flush();
+                const now = performance.now();
+                perf.settle(now);
+                const since = perf.mark;
+                // Nothing changed since the mark counts as rendered at once
+                const settled = perf.settledAt !== null || perf.lastMutation < since;
+                const longTasks = perf.longTasks.filter(([start]) => start >= since);
+                const marked = since > 0 ? perf.marked : { resources: 0, transferBytes: 0 };
+                const nav = performance.getEntriesByType('navigation')[0];
+                const fcp = performance.getEntriesByName('first-contentful-paint')[0];
+                return {
+                    softNavigation: since > 0,
+                    durationMs: now - since,
+                    renderSettled: settled,
+                    renderMs: settled ? Math.max(0, (perf.settledAt ?? since) - since) : now - since,
+                    longTaskCount: longTasks.length,
+                    longTaskMs: longTasks.reduce((sum, [, duration]) => sum + duration, 0),
+                    lcpMs: since > 0 ? 0 : perf.lcp,
+                    fcpMs: since > 0 || !fcp ? 0 : fcp.startTime,
+                    ttfbMs: since > 0 || !nav ? 0 : nav.responseStart,
+                    domContentLoadedMs: since > 0 || !nav ? 0 : nav.domContentLoadedEventEnd,
+                    loadMs: since > 0 || !nav ? 0 : nav.loadEventEnd,
+                    resourceCount: perf.resources - marked.resources,
+                    transferKb: (perf.transferBytes - marked.transferBytes) / 1024,
+                    heapMb: performance.memory ? performance.memory.usedJSHeapSize / 1048576 : 0,
+                };
+            }
+            """;
+
+    public record Metrics(
+            String page,
+            String tenant,
+            String network,
+            boolean softNavigation,
+            double durationMs,
+            boolean renderSettled,
+            double renderMs,
+            int longTaskCount,
+            double longTaskMs,
+            double lcpMs,
+            double fcpMs,
+            double ttfbMs,
+            double domContentLoadedMs,
+            double loadMs,
+            int resourceCount,
+            double transferKb,
+            double heapMb) {
+
+        JSONObject toJson() {
+            return new JSONObject()
+                    .put("page", page)
+                    .put("tenant", tenant)
+                    .put("network", network)
+                    .put("softNavigation", softNavigation)
+                    .put("durationMs", durationMs)
+                    .put("renderSettled", renderSettled)
+                    .put("renderMs", renderMs)
+                    .put("longTaskCount", longTaskCount)
+                    .put("longTaskMs", longTaskMs)
+                    .put("lcpMs", lcpMs)
+                    .put("fcpMs", fcpMs)
+                    .put("ttfbMs", ttfbMs)
+                    .put("domContentLoadedMs", domContentLoadedMs)
+                    .put("loadMs", loadMs)
+                    .put("resourceCount", resourceCount)
+                    .put("transferKb", transferKb)
+                    .put("heapMb", heapMb);
+        }
+
+        Map<String, Double> values() {
+            Map<String, Double> values = new LinkedHashMap<>();
+            // Without a quiet DOM, renderMs is only the time the capture waited
+            if (renderSettled) {
+                values.put("renderMs", renderMs);
+            }
+            values.put("longTaskMs", longTaskMs);
+            values.put("lcpMs", lcpMs);
+            values.put("loadMs", loadMs);
+            values.put("transferKb", transferKb);
+            values.put("heapMb", heapMb);
+            return values;
+        }
+    }
+
+    // Budgets hold for the app on a live network; "routed" (NetworkRouter) and "mocked" (BackendMock replay) contexts
+    // are only recorded
+    public static final String LIVE = "live";
+
+    private static final Map<BrowserContext, String> networks = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public static void install(BrowserContext context, String network) {
+        networks.put(context, network);
+        context.addInitScript(INIT_JS);
+    }
+
+    // Call right before the click that starts a route change; capture() then measures from here
+    public static void mark(Page page) {
+        try {
+            page.evaluate(MARK_JS);
+        } catch (PlaywrightException e) {
+            log.debug("Performance mark failed: {}", e.getMessage());
+        }
+    }
+
+    // Waits for the route to finish rendering, then reads and stores the metrics
+    public static Metrics capture(Page page, Tenant tenant, String pageName) {
+        Waits.loadingHidden(page, 30000);
+        Waits.domQuiet(page, QUIET_MS, 15000);
+
+        JSONObject json = new JSONObject(page.evaluate("() => JSON.stringify((" + COLLECT_JS.strip() + ")())")
+                .toString());
+        Metrics metrics = new Metrics(
+                pageName,
+                tenant.name(),
+                networks.getOrDefault(page.context(), LIVE),
+                json.getBoolean("softNavigation"),
+                json.getDouble("durationMs"),
+                json.getBoolean("renderSettled"),
+                json.getDouble("renderMs"),
+                json.getInt("longTaskCount"),
+                json.getDouble("longTaskMs"),
+                json.getDouble("lcpMs"),
+                json.getDouble("fcpMs"),
+                json.getDouble("ttfbMs"),
+                json.getDouble("domContentLoadedMs"),
+                json.getDouble("loadMs"),
+                json.getInt("resourceCount"),
+                json.getDouble("transferKb"),
+                json.getDouble("heapMb"));
+
+        log.info(
+                "Perf {} | Network: {} | Render: {}{}ms | Long tasks: {} ({}ms) | Resources: {} ({} KB) | Heap: {} MB",
+                pageName,
+                metrics.network(),
+                metrics.renderSettled() ? "" : "not settled after ",
+                Math.round(metrics.renderMs()),
+                metrics.longTaskCount(),
+                Math.round(metrics.longTaskMs()),
+                metrics.resourceCount(),
+                Math.round(metrics.transferKb()),
+                Math.round(metrics.heapMb()));
+        store(metrics);
+        return metrics;
+    }
+
+    // Budget breaches, e.g. "renderMs 9120 > 8000"; empty when within budget, enforcement is off or the network was
+    // routed or mocked
+    public static List<String> violations(Metrics metrics) {
+        List<String> violations = new ArrayList<>();
+        if (!Boolean.parseBoolean(System.getProperty("perf.enforce", "true"))) {
+            return violations;
+        }
+        if (!LIVE.equals(metrics.network())) {
+            log.info("Perf budgets not enforced for {}: {} network", metrics.page(), metrics.network());
+            return violations;
+        }
+        if (!metrics.renderSettled()) {
+            log.warn("⚠️ {} never went quiet, renderMs not checked", metrics.page());
+        }
+        for (Map.Entry<String, Double> entry : metrics.values().entrySet()) {
+            String max = threshold(metrics.tenant(), metrics.page(), entry.getKey());
+            if (max != null && entry.getValue() > Double.parseDouble(max)) {
+                violations.add(String.format("%s %.0f > %s", entry.getKey(), entry.getValue(), max));
+            }
+        }
+        return violations;
+    }
+
+    // <tenant>.<page>.<metric>, then <page>.<metric>, then <metric>
+    private static String threshold(String tenant, String page, String metric) {
+        return thresholds.getProperty(
+                tenant + "." + page + "." + metric,
+                thresholds.getProperty(page + "." + metric, thresholds.getProperty(metric)));
+    }
+
+    private static synchronized void store(Metrics metrics) {
+        try {
+            Path file = DIR.resolve(metrics.tenant()).resolve(BUILD_ID + ".jsonl");
+            Files.createDirectories(file.getParent());
+            JSONObject line = metrics.toJson()
+                    .put("build", BUILD_ID)
+                    .put("timestamp", Instant.now().toString());
+            Files.writeString(
+                    file, line + System.lineSeparator(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (Exception e) {
+            log.warn("⚠️ Could not store navigation metrics: {}", e.getMessage());
+        }
+    }
+
+    private static Properties load() {
+        Properties properties = new Properties();
+        try (InputStream in = NavigationMetrics.class.getClassLoader().getResourceAsStream(THRESHOLDS)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Error reading " + THRESHOLDS + ": " + e.getMessage(), e);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,331 @@
+package com.qa.nal.utils;
+
+import com.microsoft.playwright.*;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.json.JSONObject;
+import org.slf4j.*;
+
+// Routes every request of a UI context: aborts/stubs what the assertions never look at and serves static assets
+// from a disk cache shared across runs. Rules come from network-routes.properties, overridable per tenant.
+// The cache follows the server's Cache-Control: no-store is never cached, max-age bounds reuse, and anything not
+// fresh (no-cache, expired, or an unhashed URL without max-age) is revalidated with If-None-Match/If-Modified-Since,
+// so an unhashed bundle changed by a deploy is picked up on the next request.
+public class NetworkRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(NetworkRouter.class);
+
+    // Kept outside target/ so `mvn clean` keeps the cache warm
+    private static final Path CACHE_DIR = Paths.get(System.getProperty("network.cache.dir", "build/asset-cache"));
+
+    private static final String CONFIG = "network-routes.properties";
+
+    // Build hash in the file name, e.g. main.3f2a9c1b8e7d6f5a.js or chunk-5XKQ2ZPT.js
+    private static final Pattern FINGERPRINT = Pattern.compile(
+            "[.\\-_](?=[0-9a-zA-Z]*\\d)(?=[0-9a-zA-Z]*[a-zA-Z])[0-9a-zA-Z]{8,}\\.[a-z0-9]+$");
+
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    // 1x1 transparent GIF
+    private static final byte[] PIXEL = Base64.getDecoder().decode("R0lGODlhAQABAIAAAAAAAP///yH5BAEAAAAALAAAAAABAAEAAAIBRAA7");
+
+    private static final Properties config = load();
+
+    private final Set<String> abortTypes;
+    private final Set<String> stubTypes;
+    private final List<String> blockedPatterns;
+    private final Set<String> cacheExtensions;
+    private final long cacheTtlMillis;
+
+    private final Map<String, PageStats> stats = new ConcurrentHashMap<>();
+
+    private static final class PageStats {
+        final LongAdder aborted = new LongAdder();
+        final LongAdder stubbed = new LongAdder();
+        final LongAdder cacheHits = new LongAdder();
+        final LongAdder bytesSaved = new LongAdder();
+        final LongAdder msSaved = new LongAdder();
+    }
+
+    public NetworkRouter(Tenant tenant) {
+        this.abortTypes = new HashSet<>(list(tenant, "abort.resourceTypes"));
+        this.stubTypes = new HashSet<>(list(tenant, "stub.resourceTypes"));
+        this.blockedPatterns = list(tenant, "block.urlPatterns");
+        this.cacheExtensions = new HashSet<>(list(tenant, "cache.extensions"));
+        this.cacheTtlMillis = (long) (Double.parseDouble(value(tenant, "cache.ttlHours", "24")) * 3_600_000);
+    }
+
+    // On by default except in the debug profile, where the page should look like it does for a user
+    public static boolean enabled() {
+        String override = System.getProperty("network.router");
+        if (override != null && !override.isBlank()) {
+            return Boolean.parseBoolean(override);
+        }
+        return ExecutionProfile.current() != ExecutionProfile.DEBUG;
+    }
+
+    public void attach(BrowserContext context) {
+        context.route("**/*", this::handle);
+    }
+
+    private void handle(Route route) {
+        Request request = route.request();
+        String url = request.url();
+        String type = request.resourceType();
+
+        try {
+            if (abortTypes.contains(type) || blocked(url)) {
+                stats(request).aborted.increment();
+                route.abort("blockedbyclient");
+                return;
+            }
+
+            if (stubTypes.contains(type)) {
+                stats(request).stubbed.increment();
+                route.fulfill(new Route.FulfillOptions()
+                        .setStatus(200)
+                        .setContentType("image/gif")
+                        .setBodyBytes(PIXEL));
+                return;
+            }
+
+            if ("GET".equals(request.method()) && cacheable(url)) {
+                serveCached(route, url);
+                return;
+            }
+
+            route.resume();
+        } catch (PlaywrightException e) {
+            // Page or context closed while the request was in flight
+            log.debug("Route for {} not handled: {}", url, e.getMessage());
+        }
+    }
+
+    private void serveCached(Route route, String url) {
+        Path body = CACHE_DIR.resolve(key(url) + ".bin");
+        Path meta = CACHE_DIR.resolve(key(url) + ".json");
+
+        JSONObject info = null;
+        try {
+            if (Files.exists(body) && Files.exists(meta)) {
+                info = new JSONObject(Files.readString(meta));
+                if (fresh(url, info)) {
+                    fulfillFromCache(route, body, info, info.optLong("fetchMs"));
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Asset cache miss for {}: {}", url, e.getMessage());
+            info = null;
+        }
+
+        // Stale or no-cache: ask the server whether the cached copy is still current
+        Map<String, String> headers = new HashMap<>(route.request().headers());
+        if (info != null && !info.optString("etag").isEmpty()) {
+            headers.put("if-none-match", info.getString("etag"));
+        }
+        if (info != null && !info.optString("lastModified").isEmpty()) {
+            headers.put("if-modified-since", info.getString("lastModified"));
+        }
+
+        long start = System.nanoTime();
+        APIResponse response = route.fetch(new Route.FetchOptions().setHeaders(headers));
+        long fetchMs = (System.nanoTime() - start) / 1_000_000;
+
+        if (response.status() == 304 && info != null) {
+            try {
+                // Still current: restart its freshness, the body saved is the download avoided
+                info.put("storedAt", System.currentTimeMillis()).put("maxAgeMs", maxAgeMs(response));
+                writeMeta(meta, info);
+                fulfillFromCache(route, body, info, Math.max(0, info.optLong("fetchMs") - fetchMs));
+                return;
+            } catch (Exception e) {
+                log.debug("Revalidated {} but could not serve it: {}", url, e.getMessage());
+                response = route.fetch();
+            }
+        }
+        route.fulfill(new Route.FulfillOptions().setResponse(response));
+
+        String cacheControl = response.headers().getOrDefault("cache-control", "");
+        if (response.status() == 200 && !cacheControl.contains("no-store")) {
+            store(body, meta, response, fetchMs);
+        }
+    }
+
+    // Reusable without asking the server: max-age (capped by the TTL), or the TTL for hashed file names
+    private boolean fresh(String url, JSONObject info) {
+        if (info.optBoolean("noCache")) {
+            return false;
+        }
+        long age = System.currentTimeMillis() - info.optLong("storedAt");
+        long lifetime = info.has("maxAgeMs") && info.getLong("maxAgeMs") >= 0
+                ? Math.min(info.getLong("maxAgeMs"), cacheTtlMillis)
+                : fingerprinted(url) ? cacheTtlMillis : 0;
+        return age < lifetime;
+    }
+
+    private void fulfillFromCache(Route route, Path body, JSONObject info, long msSaved) throws Exception {
+        route.fulfill(new Route.FulfillOptions()
+                .setStatus(200)
+                .setContentType(info.optString("contentType", "application/octet-stream"))
+                .setHeaders(headers(info))
+                .setBodyBytes(Files.readAllBytes(body)));
+
+        PageStats s = stats(route.request());
+        s.cacheHits.increment();
+        s.bytesSaved.add(Files.size(body));
+        s.msSaved.add(msSaved);
+    }
+
+    private static void store(Path body, Path meta, APIResponse response, long fetchMs) {
+        try {
+            Files.createDirectories(CACHE_DIR);
+            Map<String, String> headers = response.headers();
+            String cacheControl = headers.getOrDefault("cache-control", "");
+            JSONObject info = new JSONObject()
+                    .put("url", response.url())
+                    .put("contentType", headers.getOrDefault("content-type", "application/octet-stream"))
+                    .put("allowOrigin", headers.getOrDefault("access-control-allow-origin", ""))
+                    .put("etag", headers.getOrDefault("etag", ""))
+                    .put("lastModified", headers.getOrDefault("last-modified", ""))
+                    .put("noCache", cacheControl.contains("no-cache"))
+                    .put("maxAgeMs", maxAgeMs(response))
+                    .put("storedAt", System.currentTimeMillis())
+                    .put("fetchMs", fetchMs);
+
+            // Write beside the target and move, so parallel workers never serve a partial file
+            Path tmp = Files.createTempFile(CACHE_DIR, "asset", ".tmp");
+            Files.write(tmp, response.body());
+            Files.move(tmp, body, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            writeMeta(meta, info);
+        } catch (Exception e) {
+            log.debug("Could not cache {}: {}", response.url(), e.getMessage());
+        }
+    }
+
+    private static void writeMeta(Path meta, JSONObject info) throws Exception {
+        Path tmp = Files.createTempFile(CACHE_DIR, "meta", ".tmp");
+        Files.writeString(tmp, info.toString());
+        Files.move(tmp, meta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // -1 when the response has no max-age
+    private static long maxAgeMs(APIResponse response) {
+        Matcher matcher = MAX_AGE.matcher(response.headers().getOrDefault("cache-control", ""));
+        return matcher.find() ? Long.parseLong(matcher.group(1)) * 1000 : -1;
+    }
+
+    private static boolean fingerprinted(String url) {
+        try {
+            String path = URI.create(url.split("[?#]")[0]).getPath();
+            return path != null && FINGERPRINT.matcher(path.substring(path.lastIndexOf('/') + 1)).find();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // Fonts and scripts from another origin need their CORS header back
+    private static Map<String, String> headers(JSONObject info) {
+        String allowOrigin = info.optString("allowOrigin");
+        return allowOrigin.isEmpty() ? Map.of() : Map.of("access-control-allow-origin", allowOrigin);
+    }
+
+    private boolean blocked(String url) {
+        for (String pattern : blockedPatterns) {
+            if (url.contains(pattern)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean cacheable(String url) {
+        try {
+            String path = URI.create(url.split("[?#]")[0]).getPath();
+            int dot = path == null ? -1 : path.lastIndexOf('.');
+            return dot >= 0 && cacheExtensions.contains(path.substring(dot + 1).toLowerCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // Requests are attributed to the path of the page that issued them, e.g. /app/observation-mgmt
+    private PageStats stats(Request request) {
+        String page;
+        try {
+            page = URI.create(request.frame().page().url()).getPath();
+        } catch (Exception e) {
+            page = "(other)";
+        }
+        return stats.computeIfAbsent(page == null || page.isEmpty() ? "/" : page, k -> new PageStats());
+    }
+
+    public String report() {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format(
+                "%n%-40s %8s %8s %8s %10s %9s%n", "Page", "Aborted", "Stubbed", "Cached", "Saved(KB)", "Saved(ms)"));
+
+        long totalBytes = 0;
+        long totalMs = 0;
+        for (Map.Entry<String, PageStats> entry : new TreeMap<>(stats).entrySet()) {
+            PageStats s = entry.getValue();
+            table.append(String.format(
+                    "%-40s %8d %8d %8d %10.1f %9d%n",
+                    entry.getKey(),
+                    s.aborted.sum(),
+                    s.stubbed.sum(),
+                    s.cacheHits.sum(),
+                    s.bytesSaved.sum() / 1024.0,
+                    s.msSaved.sum()));
+            totalBytes += s.bytesSaved.sum();
+            totalMs += s.msSaved.sum();
+        }
+        table.append(String.format("Total from asset cache: %.1f KB, %d ms", totalBytes / 1024.0, totalMs));
+        return table.toString();
+    }
+
+    private static String key(String url) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<String> list(Tenant tenant, String key) {
+        List<String> values = new ArrayList<>();
+        for (String value : value(tenant, key, "").split(",")) {
+            if (!value.isBlank()) {
+                values.add(value.trim());
+            }
+        }
+        return values;
+    }
+
+    private static String value(Tenant tenant, String key, String fallback) {
+        return config.getProperty(tenant.name() + "." + key, config.getProperty(key, fallback));
+    }
+
+    private static Properties load() {
+        Properties properties = new Properties();
+        try (InputStream in = NetworkRouter.class.getClassLoader().getResourceAsStream(CONFIG)) {
+            if (in != null) {
+                properties.load(in);
+            } else {
+                log.warn("⚠️ {} not found, routing every request through", CONFIG);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Error reading " + CONFIG + ": " + e.getMessage(), e);
+        }
+        return properties;
+    }
+}
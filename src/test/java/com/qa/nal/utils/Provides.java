@@ -0,0 +1,13 @@
+package com.qa.nal.utils;
+
+import java.lang.annotation.*;
+
+// What a test leaves behind once it has passed; the counterpart of @Requires
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@Documented
+public @interface Provides {
+    String[] value() default {};
+
+    String[] data() default {};
+}
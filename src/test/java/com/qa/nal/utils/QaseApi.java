@@ -0,0 +1,106 @@
+package com.qa.nal.utils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.UUID;
+import org.json.JSONObject;
+
+// Qase TestOps REST calls outside the JUnit reporter, e.g. one test run shared by every shard.
+// Settings use the reporter's names (QASE_TESTOPS_PROJECT, QASE_TESTOPS_API_TOKEN) as system properties or env vars.
+public class QaseApi {
+
+    // Point at a local stand-in to consume results without Qase, e.g. -Dqase.api.url=http://127.0.0.1:8099/v1
+    private static final String BASE_URL = System.getProperty("qase.api.url", "https://api.qase.io/v1");
+
+    private static final HttpClient http =
+            HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+
+    public static String project() {
+        return setting("QASE_TESTOPS_PROJECT", setting("QASE_PROJECT_CODE", "DIAGNOSTIC"));
+    }
+
+    public static String token() {
+        return setting("QASE_TESTOPS_API_TOKEN", setting("QASE_API_TOKEN", setting("QASE_TOKEN", null)));
+    }
+
+    public static boolean configured() {
+        return token() != null && !token().isBlank();
+    }
+
+    // Run id from -DQASE_TESTOPS_RUN_ID / env, or null when each JVM should create its own run
+    public static Long runId() {
+        String id = setting("QASE_TESTOPS_RUN_ID", null);
+        return id == null || id.isBlank() ? null : Long.parseLong(id.trim());
+    }
+
+    public static long createRun(String title) {
+        JSONObject response = post("/run/" + project(), new JSONObject().put("title", title));
+        return response.getJSONObject("result").getLong("id");
+    }
+
+    public static void completeRun(long runId) {
+        post("/run/" + project() + "/" + runId + "/complete", new JSONObject());
+    }
+
+    public static JSONObject post(String path, Object body) {
+        return send(path, "application/json", HttpRequest.BodyPublishers.ofString(body.toString()));
+    }
+
+    // Uploads a file for attaching to results; returns its hash
+    public static String attach(Path file) throws IOException {
+        String boundary = "----qa" + UUID.randomUUID().toString().replace("-", "");
+        String type = Objects.requireNonNullElse(Files.probeContentType(file), "application/octet-stream");
+        String head = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + file.getFileName() + "\"\r\n"
+                + "Content-Type: " + type + "\r\n\r\n";
+        String tail = "\r\n--" + boundary + "--\r\n";
+
+        HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.concat(
+                HttpRequest.BodyPublishers.ofString(head),
+                HttpRequest.BodyPublishers.ofFile(file),
+                HttpRequest.BodyPublishers.ofString(tail));
+        JSONObject response = send("/attachment/" + project(), "multipart/form-data; boundary=" + boundary, body);
+        return response.getJSONArray("result").getJSONObject(0).getString("hash");
+    }
+
+    private static JSONObject send(String path, String contentType, HttpRequest.BodyPublisher body) {
+        if (!configured()) {
+            throw new IllegalStateException("Qase API token not set (QASE_TESTOPS_API_TOKEN)");
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(BASE_URL + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Token", token())
+                .header("Accept", "application/json")
+                .header("Content-Type", contentType)
+                .POST(body)
+                .build();
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                throw new IllegalStateException(String.format(
+                        "Qase %s failed. Status: %d | Body: %s", path, response.statusCode(), response.body()));
+            }
+            return response.body() == null || response.body().isBlank()
+                    ? new JSONObject()
+                    : new JSONObject(response.body());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Qase " + path + " interrupted", e);
+        } catch (IOException e) {
+            throw new IllegalStateException("Qase " + path + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    private static String setting(String name, String fallback) {
+        String value = System.getProperty(name, System.getenv(name));
+        // An unset ${env.X} in the surefire config arrives as the literal placeholder
+        return value == null || value.isBlank() || value.startsWith("${") ? fallback : value;
+    }
+}
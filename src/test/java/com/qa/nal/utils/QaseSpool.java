@@ -0,0 +1,344 @@
+package com.qa.nal.utils;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+import org.json.*;
+import org.slf4j.*;
+
+// Test results go to an append-only spool (build/qase-spool/results.jsonl) and a background thread uploads them to
+// Qase in batches, so a slow or unavailable Qase API never holds up a test. The upload position is kept in
+// uploaded.offset: whatever did not make it out stays in the spool for the next run or exec:java@qase-upload.
+// Results without a shared run (-DQASE_TESTOPS_RUN_ID) carry the build's run key (RunHistory.RUN_ID) and go to one
+// Qase run per key (runs.json), which is completed once nothing of that key is left; leftovers of an earlier build
+// therefore land in that build's run, never in the current one.
+// -Dqase.spool=upload|offline|off (QASE_SPOOL); offline only spools. Default: upload when a Qase token is set.
+public class QaseSpool {
+
+    private static final Logger log = LoggerFactory.getLogger(QaseSpool.class);
+
+    public static final Path DIR = Paths.get(System.getProperty("qase.spool.dir", "build/qase-spool"));
+
+    private static final Path SPOOL = DIR.resolve("results.jsonl");
+    private static final Path OFFSET = DIR.resolve("uploaded.offset");
+    private static final Path RUNS = DIR.resolve("runs.json");
+
+    private static final int BATCH_SIZE = Integer.getInteger("qase.spool.batch", 50);
+    private static final long FLUSH_MS = Long.getLong("qase.spool.flushMs", 5000);
+
+    // How long the end of the JVM may wait for the last batches before leaving them spooled
+    private static final Duration DRAIN = Duration.ofSeconds(Long.getLong("qase.spool.drainSeconds", 30));
+
+    // Spool writers vs. truncation, and one uploader at a time
+    private static final Object spoolLock = new Object();
+    private static final Object uploadLock = new Object();
+
+    private static Thread uploader;
+
+    public enum Mode {
+        UPLOAD,
+        OFFLINE,
+        OFF
+    }
+
+    public static Mode mode() {
+        String value = System.getProperty("qase.spool", System.getenv("QASE_SPOOL"));
+        if (value == null || value.isBlank()) {
+            return QaseApi.configured() ? Mode.UPLOAD : Mode.OFFLINE;
+        }
+        return Mode.valueOf(value.trim().toUpperCase());
+    }
+
+    // One result: caseId, title, tenant, status, timeMs, stacktrace, steps, attachments (file paths)
+    public static void append(JSONObject result) {
+        if (mode() == Mode.OFF) {
+            return;
+        }
+        Long run = QaseApi.runId();
+        if (run != null && !result.has("run")) {
+            result.put("run", run);
+        } else if (!result.has("run")) {
+            result.put("runKey", RunHistory.RUN_ID);
+        }
+        synchronized (spoolLock) {
+            try {
+                Files.createDirectories(DIR);
+                Files.writeString(
+                        SPOOL,
+                        result + "\n",
+                        StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                log.warn("⚠️ Could not spool result for {}: {}", result.optString("title"), e.getMessage());
+                return;
+            }
+        }
+        if (mode() == Mode.UPLOAD) {
+            startUploader();
+        }
+    }
+
+    private static synchronized void startUploader() {
+        if (uploader != null) {
+            return;
+        }
+        // One drain per JVM, however many test plans (branches, shards, tenants) it ran
+        Runtime.getRuntime().addShutdownHook(new Thread(QaseSpool::finish, "qase-spool-drain"));
+        uploader = Thread.ofPlatform().daemon().name("qase-uploader").start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    Thread.sleep(FLUSH_MS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                upload();
+            }
+        });
+    }
+
+    private static void finish() {
+        int pending = drain(DRAIN);
+        if (pending > 0) {
+            log.info("{} Qase result(s) left in {} for the next upload", pending, DIR);
+        }
+        synchronized (uploadLock) {
+            completeRuns(true);
+        }
+    }
+
+    // Waits up to `max` for everything spooled so far to be uploaded; returns the results still pending
+    public static int drain(Duration max) {
+        if (mode() != Mode.UPLOAD) {
+            return pending();
+        }
+        long deadline = System.nanoTime() + max.toNanos();
+        while (pending() > 0 && System.nanoTime() < deadline) {
+            long remainingMs = Math.max(1, (deadline - System.nanoTime()) / 1_000_000);
+            if (upload(RetryPolicy.named("qaseUpload").withDeadline(remainingMs)) == 0) {
+                break;
+            }
+        }
+        return pending();
+    }
+
+    public static int upload() {
+        return upload(RetryPolicy.named("qaseUpload"));
+    }
+
+    // Uploads pending results batch by batch; stops at the first batch that still fails after retries
+    private static int upload(RetryPolicy policy) {
+        synchronized (uploadLock) {
+            int uploaded = 0;
+            while (true) {
+                List<Line> batch = read(offset(), BATCH_SIZE);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                RetryPolicy.Outcome<Integer> outcome = policy.retry(() -> send(batch));
+                if (!outcome.ok()) {
+                    log.warn(
+                            "⚠️ Qase upload failed, {} result(s) stay spooled: {}",
+                            pending(),
+                            outcome.error() == null ? outcome.stopReason() : outcome.error().getMessage());
+                    break;
+                }
+                writeOffset(batch.get(batch.size() - 1).end());
+                uploaded += batch.size();
+            }
+            completeRuns(false);
+            compact();
+            if (uploaded > 0) {
+                log.info("✅ {} result(s) uploaded to Qase", uploaded);
+            }
+            return uploaded;
+        }
+    }
+
+    public static int pending() {
+        return read(offset(), Integer.MAX_VALUE).size();
+    }
+
+    private record Line(JSONObject result, long end) {}
+
+    // Posts one batch, grouped by run; results without a Qase case id are only kept in the spool
+    private static int send(List<Line> batch) {
+        Map<Long, JSONArray> byRun = new LinkedHashMap<>();
+        for (Line line : batch) {
+            JSONObject result = line.result();
+            if (!result.has("caseId")) {
+                continue;
+            }
+            long run = result.has("run") ? result.getLong("run") : runFor(result.optString("runKey", "unknown"));
+            byRun.computeIfAbsent(run, k -> new JSONArray()).put(toQase(result));
+        }
+        byRun.forEach((run, results) -> QaseApi.post(
+                "/result/" + QaseApi.project() + "/" + run + "/bulk", new JSONObject().put("results", results)));
+        return batch.size();
+    }
+
+    private static JSONObject toQase(JSONObject result) {
+        JSONObject qase = new JSONObject()
+                .put("case_id", result.getLong("caseId"))
+                .put("status", result.getString("status"))
+                .put("time_ms", result.optLong("timeMs"));
+        if (result.has("stacktrace")) {
+            qase.put("stacktrace", result.getString("stacktrace"));
+        }
+
+        StringBuilder comment = new StringBuilder("Tenant: " + result.optString("tenant"));
+        JSONArray steps = result.optJSONArray("steps");
+        if (steps != null) {
+            for (int i = 0; i < steps.length(); i++) {
+                JSONObject step = steps.getJSONObject(i);
+                comment.append(String.format(
+                        "%n%d. %s (%d ms)", i + 1, step.getString("name"), step.getLong("durationMs")));
+            }
+        }
+        qase.put("comment", comment.toString());
+
+        JSONArray hashes = new JSONArray();
+        JSONArray attachments = result.optJSONArray("attachments");
+        if (attachments != null) {
+            for (int i = 0; i < attachments.length(); i++) {
+                Path file = Paths.get(attachments.getString(i));
+                // Pruned by FailureCapture retention in the meantime
+                if (!Files.exists(file)) {
+                    continue;
+                }
+                try {
+                    hashes.put(QaseApi.attach(file));
+                } catch (IOException e) {
+                    log.debug("Attachment {} not uploaded: {}", file, e.getMessage());
+                }
+            }
+        }
+        if (!hashes.isEmpty()) {
+            qase.put("attachments", hashes);
+        }
+        return qase;
+    }
+
+    // Qase run for a run key, opened on first use and remembered in runs.json until it is completed
+    private static synchronized long runFor(String key) {
+        JSONObject runs = readRuns();
+        if (!runs.has(key)) {
+            long id = QaseApi.createRun(System.getProperty("qase.run.title", "Automated run " + key));
+            runs.put(key, id);
+            writeRuns(runs);
+            log.info("✅ Qase run {} opened for {}", id, key);
+        }
+        return runs.getLong(key);
+    }
+
+    // Completes the runs with nothing left in the spool; this JVM's own run only once it is finishing
+    private static synchronized void completeRuns(boolean includingCurrent) {
+        JSONObject runs = readRuns();
+        if (runs.isEmpty()) {
+            return;
+        }
+        Set<String> pendingKeys = new HashSet<>();
+        for (Line line : read(offset(), Integer.MAX_VALUE)) {
+            pendingKeys.add(line.result().optString("runKey", "unknown"));
+        }
+        for (String key : new ArrayList<>(runs.keySet())) {
+            if (pendingKeys.contains(key) || (!includingCurrent && key.equals(RunHistory.RUN_ID))) {
+                continue;
+            }
+            try {
+                QaseApi.completeRun(runs.getLong(key));
+                log.info("✅ Qase run {} completed ({})", runs.getLong(key), key);
+                runs.remove(key);
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Could not complete Qase run {}: {}", runs.getLong(key), e.getMessage());
+            }
+        }
+        writeRuns(runs);
+    }
+
+    private static JSONObject readRuns() {
+        try {
+            return Files.exists(RUNS) ? new JSONObject(Files.readString(RUNS)) : new JSONObject();
+        } catch (IOException | JSONException e) {
+            return new JSONObject();
+        }
+    }
+
+    private static void writeRuns(JSONObject runs) {
+        try {
+            Files.createDirectories(DIR);
+            Path tmp = RUNS.resolveSibling(RUNS.getFileName() + ".tmp");
+            Files.writeString(tmp, runs.toString(2));
+            Files.move(tmp, RUNS, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("⚠️ Could not save the Qase runs: {}", e.getMessage());
+        }
+    }
+
+    // Complete lines from `from` on (a line still being written has no newline yet)
+    private static List<Line> read(long from, int max) {
+        List<Line> lines = new ArrayList<>();
+        if (!Files.exists(SPOOL)) {
+            return lines;
+        }
+        try (RandomAccessFile file = new RandomAccessFile(SPOOL.toFile(), "r")) {
+            if (from > file.length()) {
+                return lines;
+            }
+            byte[] bytes = new byte[(int) (file.length() - from)];
+            file.seek(from);
+            file.readFully(bytes);
+
+            int start = 0;
+            for (int i = 0; i < bytes.length && lines.size() < max; i++) {
+                if (bytes[i] != '\n') {
+                    continue;
+                }
+                String text = new String(bytes, start, i - start, StandardCharsets.UTF_8).trim();
+                if (!text.isEmpty()) {
+                    lines.add(new Line(new JSONObject(text), from + i + 1));
+                }
+                start = i + 1;
+            }
+        } catch (IOException e) {
+            log.warn("⚠️ Could not read {}: {}", SPOOL, e.getMessage());
+        }
+        return lines;
+    }
+
+    // Fully uploaded spool starts over instead of growing forever
+    private static void compact() {
+        synchronized (spoolLock) {
+            try {
+                if (Files.exists(SPOOL) && offset() >= Files.size(SPOOL)) {
+                    Files.delete(SPOOL);
+                    writeOffset(0);
+                }
+            } catch (IOException e) {
+                log.debug("Spool not compacted: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static long offset() {
+        try {
+            return Files.exists(OFFSET) ? Long.parseLong(Files.readString(OFFSET).trim()) : 0;
+        } catch (IOException | NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static void writeOffset(long offset) {
+        try {
+            Files.createDirectories(DIR);
+            Path tmp = OFFSET.resolveSibling(OFFSET.getFileName() + ".tmp");
+            Files.writeString(tmp, String.valueOf(offset));
+            Files.move(tmp, OFFSET, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("⚠️ Could not save the upload position: {}", e.getMessage());
+        }
+    }
+}
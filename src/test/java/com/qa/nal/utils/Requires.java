@@ -0,0 +1,15 @@
+package com.qa.nal.utils;
+
+import java.lang.annotation.*;
+
+// What a test needs before it can run, for DependencyScheduler.
+// value: page/session state set up earlier in the same context (re-established per branch by rerunning its providers)
+// data:  server-side data another test creates; the branch waits until the providing branch has finished
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@Documented
+public @interface Requires {
+    String[] value() default {};
+
+    String[] data() default {};
+}
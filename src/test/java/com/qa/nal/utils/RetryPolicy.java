@@ -0,0 +1,259 @@
+package com.qa.nal.utils;
+
+import java.io.InputStream;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.json.*;
+import org.slf4j.*;
+
+// Poll/retry with backoff and an overall deadline instead of fixed attempt counts and sleeps. Policies are named and
+// configured in retry-policies.properties (overridable per tenant); attempts and time spent are aggregated per policy
+// and written to target/retry.
+public record RetryPolicy(
+        String name, int attempts, long deadlineMs, Backoff backoff, long baseMs, long capMs, long stableMs) {
+
+    private static final Logger log = LoggerFactory.getLogger(RetryPolicy.class);
+
+    public static final Path REPORT_DIR = Paths.get("target", "retry");
+
+    private static final String CONFIG = "retry-policies.properties";
+
+    private static final Properties config = load();
+
+    private static final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    // Polls made on this thread since the last drain: policy -> {polls, attempts, elapsed ms}
+    private static final ThreadLocal<Map<String, long[]>> threadStats = ThreadLocal.withInitial(LinkedHashMap::new);
+
+    public enum Backoff {
+        FIXED,
+        EXPONENTIAL,
+        // AWS "decorrelated jitter": random between base and 3x the previous sleep, capped
+        DECORRELATED
+    }
+
+    // stopReason: done, attempts, deadline, stable or interrupted
+    public record Outcome<T>(
+            T value, boolean ok, int attempts, long elapsedMs, String stopReason, RuntimeException error) {}
+
+    private static final class Stats {
+        final LongAdder calls = new LongAdder();
+        final LongAdder succeeded = new LongAdder();
+        final LongAdder attempts = new LongAdder();
+        final LongAdder elapsedMs = new LongAdder();
+        final LongAdder sleptMs = new LongAdder();
+        final Map<String, LongAdder> stops = new ConcurrentHashMap<>();
+    }
+
+    public static RetryPolicy named(Tenant tenant, String name) {
+        return new RetryPolicy(
+                name,
+                Integer.parseInt(value(tenant, name, "attempts", "0")),
+                Long.parseLong(value(tenant, name, "deadlineMs", "10000")),
+                Backoff.valueOf(value(tenant, name, "backoff", "exponential").toUpperCase()),
+                Long.parseLong(value(tenant, name, "baseMs", "250")),
+                Long.parseLong(value(tenant, name, "capMs", "2000")),
+                Long.parseLong(value(tenant, name, "stableMs", "0")));
+    }
+
+    // Policies that don't depend on the tenant, e.g. report uploads
+    public static RetryPolicy named(String name) {
+        return named(null, name);
+    }
+
+    public RetryPolicy withDeadline(long deadlineMs) {
+        return new RetryPolicy(name, attempts, deadlineMs, backoff, baseMs, capMs, stableMs);
+    }
+
+    // Runs the probe until done() accepts its result. A null result means "not ready yet"; an exception counts as a
+    // failed attempt. With stableMs set, a non-null result that has not changed for at least stableMs (measured from
+    // the probe that first returned it, whatever the backoff) ends the poll early.
+    public <T> Outcome<T> poll(Supplier<T> probe, Predicate<T> done) {
+        long start = System.nanoTime();
+        long sleep = baseMs;
+        long slept = 0;
+        int attempt = 0;
+        long stableSince = 0;
+        T previous = null;
+        T value = null;
+        RuntimeException error = null;
+        String stopReason;
+
+        try (Spans.Span span = Spans.open("retry " + name, "retry")) {
+            while (true) {
+                attempt++;
+                value = null;
+                error = null;
+                try {
+                    value = probe.get();
+                } catch (RuntimeException e) {
+                    error = e;
+                    log.debug("{} attempt {} failed: {}", name, attempt, e.getMessage());
+                }
+
+                if (error == null && done.test(value)) {
+                    stopReason = "done";
+                    break;
+                }
+                if (error == null && value != null && stableMs > 0) {
+                    if (!value.equals(previous)) {
+                        stableSince = System.nanoTime();
+                    } else if ((System.nanoTime() - stableSince) / 1_000_000 >= stableMs) {
+                        stopReason = "stable";
+                        break;
+                    }
+                }
+                previous = error == null ? value : null;
+
+                if (attempts > 0 && attempt >= attempts) {
+                    stopReason = "attempts";
+                    break;
+                }
+                long remaining = deadlineMs - (System.nanoTime() - start) / 1_000_000;
+                if (remaining <= 0) {
+                    stopReason = "deadline";
+                    break;
+                }
+
+                long pause = Math.min(sleep, remaining);
+                try {
+                    Thread.sleep(pause);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    stopReason = "interrupted";
+                    break;
+                }
+                slept += pause;
+                sleep = next(sleep, attempt);
+            }
+            span.arg("attempts", attempt).arg("stop", stopReason);
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        boolean ok = "done".equals(stopReason);
+        record(ok, attempt, elapsedMs, slept, stopReason);
+        if (!ok) {
+            log.info("⚠️ {} gave up after {} attempt(s) in {}ms ({})", name, attempt, elapsedMs, stopReason);
+        }
+        return new Outcome<>(value, ok, attempt, elapsedMs, stopReason, error);
+    }
+
+    // Retries an action until it stops throwing
+    public <T> Outcome<T> retry(Supplier<T> action) {
+        return poll(action, result -> true);
+    }
+
+    private long next(long previous, int attempt) {
+        long next = switch (backoff) {
+            case FIXED -> baseMs;
+            case EXPONENTIAL -> baseMs << Math.min(attempt, 20);
+            case DECORRELATED -> ThreadLocalRandom.current().nextLong(baseMs, Math.max(baseMs, previous * 3) + 1);
+        };
+        return Math.min(capMs, next);
+    }
+
+    private void record(boolean ok, int attempt, long elapsedMs, long sleptMs, String stopReason) {
+        Stats s = stats.computeIfAbsent(name, k -> new Stats());
+        s.calls.increment();
+        if (ok) {
+            s.succeeded.increment();
+        }
+        s.attempts.add(attempt);
+        s.elapsedMs.add(elapsedMs);
+        s.sleptMs.add(sleptMs);
+        s.stops.computeIfAbsent(stopReason, k -> new LongAdder()).increment();
+
+        long[] mine = threadStats.get().computeIfAbsent(name, k -> new long[3]);
+        mine[0]++;
+        mine[1] += attempt;
+        mine[2] += elapsedMs;
+    }
+
+    // Per policy {polls, retries, elapsedMs} on this thread since the last drain
+    public static JSONObject drainThreadStats() {
+        JSONObject json = new JSONObject();
+        threadStats.get().forEach((name, s) -> json.put(name, new JSONObject()
+                .put("polls", s[0])
+                .put("retries", s[1] - s[0])
+                .put("elapsedMs", s[2])));
+        threadStats.get().clear();
+        return json;
+    }
+
+    public static String report() {
+        if (stats.isEmpty()) {
+            return "Retries: none";
+        }
+        StringBuilder sb = new StringBuilder("Retries:");
+        sb.append(String.format(
+                "%n  %-12s %6s %6s %8s %10s %10s  %s",
+                "Policy",
+                "Calls",
+                "OK",
+                "Retries",
+                "Spent(s)",
+                "Slept(s)",
+                "Stops"));
+        new TreeMap<>(stats).forEach((name, s) -> sb.append(String.format(
+                "%n  %-12s %6d %6d %8d %10.1f %10.1f  %s",
+                name,
+                s.calls.sum(),
+                s.succeeded.sum(),
+                s.attempts.sum() - s.calls.sum(),
+                s.elapsedMs.sum() / 1000.0,
+                s.sleptMs.sum() / 1000.0,
+                new TreeMap<>(s.stops))));
+        return sb.toString();
+    }
+
+    // Cumulative for the JVM, like the latency report
+    public static void write(Path file) {
+        if (stats.isEmpty()) {
+            return;
+        }
+        JSONObject json = new JSONObject();
+        stats.forEach((name, s) -> {
+            JSONObject stops = new JSONObject();
+            s.stops.forEach((reason, count) -> stops.put(reason, count.sum()));
+            json.put(name, new JSONObject()
+                    .put("calls", s.calls.sum())
+                    .put("succeeded", s.succeeded.sum())
+                    .put("attempts", s.attempts.sum())
+                    .put("retries", s.attempts.sum() - s.calls.sum())
+                    .put("elapsedMs", s.elapsedMs.sum())
+                    .put("sleptMs", s.sleptMs.sum())
+                    .put("stops", stops));
+        });
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(tmp, json.toString(2));
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            log.warn("⚠️ Could not write retry metrics: {}", e.getMessage());
+        }
+    }
+
+    // <tenant>.<policy>.<key>, then <policy>.<key>
+    private static String value(Tenant tenant, String name, String key, String fallback) {
+        String shared = config.getProperty(name + "." + key, fallback);
+        return tenant == null ? shared : config.getProperty(tenant.name() + "." + name + "." + key, shared);
+    }
+
+    private static Properties load() {
+        Properties properties = new Properties();
+        try (InputStream in = RetryPolicy.class.getClassLoader().getResourceAsStream(CONFIG)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Error reading " + CONFIG + ": " + e.getMessage(), e);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,326 @@
+package com.qa.nal.utils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.json.*;
+import org.slf4j.*;
+
+// Append-only history of every test result (outcome, duration, steps, API calls, retries) across runs, kept under
+// build/run-history so it survives `mvn clean`. Each flush appends one gzip member to the run's file in the month
+// directory; compact() folds finished months into one <yyyy-MM>.jsonl.gz and drops months past -Drun.history.months.
+// -Drun.history=false keeps a run out of the history (e.g. soak runs, whose durations under load would skew it).
+public class RunHistory {
+
+    private static final Logger log = LoggerFactory.getLogger(RunHistory.class);
+
+    public static final Path DIR = Paths.get(System.getProperty("run.history.dir", "build/run-history"));
+
+    // Jenkins BUILD_NUMBER when there is one, otherwise one id per JVM
+    public static final String RUN_ID = System.getProperty(
+            "build.id",
+            Objects.requireNonNullElse(System.getenv("BUILD_NUMBER"), "local-" + Instant.now().getEpochSecond()));
+
+    private static final int RETENTION_MONTHS = Integer.getInteger("run.history.months", 12);
+
+    private static final List<JSONObject> buffer = new ArrayList<>();
+
+    public record Entry(String run, Instant at, String test, String tenant, String status, long durationMs, JSONObject raw) {
+        public boolean passed() {
+            return "passed".equals(status);
+        }
+
+        public boolean failed() {
+            return "failed".equals(status);
+        }
+    }
+
+    public record Regression(String test, String tenant, long baselineMs, long recentMs) {
+        public double ratio() {
+            return baselineMs == 0 ? 0 : (double) recentMs / baselineMs;
+        }
+    }
+
+    public record Flake(String test, String tenant, int runs, int failures, double flipRate) {}
+
+    // ==================== Writing ===========================
+
+    public static void add(JSONObject result) {
+        if (!Boolean.parseBoolean(System.getProperty("run.history", "true"))) {
+            return;
+        }
+        JSONObject entry = new JSONObject(result.toString())
+                .put("run", RUN_ID)
+                .put("at", Instant.now().toString());
+        // The Qase-only fields aren't worth keeping thousands of times
+        entry.remove("stacktrace");
+        entry.remove("attachments");
+        synchronized (buffer) {
+            buffer.add(entry);
+        }
+    }
+
+    public static void flush() {
+        List<JSONObject> pending;
+        synchronized (buffer) {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            pending = new ArrayList<>(buffer);
+            buffer.clear();
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer out = new OutputStreamWriter(new GZIPOutputStream(bytes), StandardCharsets.UTF_8)) {
+            for (JSONObject entry : pending) {
+                out.write(entry.toString());
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            log.warn("⚠️ Could not encode run history: {}", e.getMessage());
+            return;
+        }
+
+        // One write per flush, so JVMs sharing the run file append whole members
+        Path file = runFile();
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(file, bytes.toByteArray(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.warn("⚠️ Could not append run history to {}: {}", file, e.getMessage());
+        }
+    }
+
+    public static Path runFile() {
+        return DIR.resolve(YearMonth.now(ZoneOffset.UTC).toString()).resolve(RUN_ID + ".jsonl.gz");
+    }
+
+    // Adds another machine's run file (e.g. a shard's) to this run
+    public static void append(Path runFile) throws IOException {
+        Files.createDirectories(runFile().getParent());
+        Files.write(runFile(), Files.readAllBytes(runFile), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    // Concatenates the run files of finished months into one archive each and applies the retention
+    public static synchronized void compact() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        YearMonth oldest = current.minusMonths(RETENTION_MONTHS - 1L);
+        for (Path segment : segments()) {
+            YearMonth month = month(segment);
+            try {
+                if (month == null) {
+                    continue;
+                }
+                if (month.isBefore(oldest)) {
+                    delete(segment);
+                    log.info("Dropped run history for {}", month);
+                } else if (Files.isDirectory(segment) && month.isBefore(current)) {
+                    Path archive = DIR.resolve(month + ".jsonl.gz");
+                    try (OutputStream out = Files.newOutputStream(
+                            archive, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                        for (Path run : runFiles(segment)) {
+                            // gzip members can simply be concatenated
+                            Files.copy(run, out);
+                        }
+                    }
+                    delete(segment);
+                    log.info("Archived run history for {} into {}", month, archive);
+                }
+            } catch (IOException e) {
+                log.warn("⚠️ Could not compact {}: {}", segment, e.getMessage());
+            }
+        }
+    }
+
+    // ==================== Reading ===========================
+
+    public static List<Entry> entries() {
+        return entries(Instant.EPOCH);
+    }
+
+    // Entries at or after `since`, oldest first
+    public static List<Entry> entries(Instant since) {
+        YearMonth from = YearMonth.from(since.atZone(ZoneOffset.UTC));
+        List<Entry> entries = new ArrayList<>();
+        for (Path segment : segments()) {
+            YearMonth month = month(segment);
+            if (month == null || month.isBefore(from)) {
+                continue;
+            }
+            List<Path> files = Files.isDirectory(segment) ? runFiles(segment) : List.of(segment);
+            for (Path file : files) {
+                read(file, since, entries);
+            }
+        }
+        entries.sort(Comparator.comparing(Entry::at));
+        return entries;
+    }
+
+    // Run ids, oldest first
+    public static List<String> runs(List<Entry> entries) {
+        LinkedHashSet<String> runs = new LinkedHashSet<>();
+        entries.forEach(entry -> runs.add(entry.run()));
+        return new ArrayList<>(runs);
+    }
+
+    // The test's results in its last `runs` runs, oldest first
+    public static List<Entry> history(List<Entry> entries, String test, String tenant, int runs) {
+        List<Entry> matching = entries.stream()
+                .filter(entry -> entry.test().equals(test) && entry.tenant().equals(tenant))
+                .toList();
+        return matching.subList(Math.max(0, matching.size() - runs), matching.size());
+    }
+
+    public static List<Long> durationTrend(List<Entry> entries, String test, String tenant, int runs) {
+        return history(entries, test, tenant, runs).stream().map(Entry::durationMs).toList();
+    }
+
+    // Median duration of recent passing runs; empty when the test has never passed
+    public static OptionalLong medianDurationMs(List<Entry> entries, String test, String tenant, int runs) {
+        List<Long> passed = history(entries, test, tenant, runs).stream()
+                .filter(Entry::passed)
+                .map(Entry::durationMs)
+                .toList();
+        return passed.isEmpty() ? OptionalLong.empty() : OptionalLong.of(median(passed));
+    }
+
+    // Tests that both passed and failed recently; flipRate is the share of consecutive runs that changed outcome
+    public static List<Flake> flaky(List<Entry> entries, int runs, double minFlipRate) {
+        List<Flake> flakes = new ArrayList<>();
+        for (Map.Entry<String, List<Entry>> test : byTest(entries).entrySet()) {
+            List<Entry> recent = test.getValue().subList(Math.max(0, test.getValue().size() - runs), test.getValue().size());
+            int failures = (int) recent.stream().filter(Entry::failed).count();
+            if (recent.size() < 2 || failures == 0 || failures == recent.size()) {
+                continue;
+            }
+            int flips = 0;
+            for (int i = 1; i < recent.size(); i++) {
+                flips += recent.get(i).passed() != recent.get(i - 1).passed() ? 1 : 0;
+            }
+            double flipRate = (double) flips / (recent.size() - 1);
+            if (flipRate >= minFlipRate) {
+                Entry first = recent.get(0);
+                flakes.add(new Flake(first.test(), first.tenant(), recent.size(), failures, flipRate));
+            }
+        }
+        flakes.sort(Comparator.comparingDouble(Flake::flipRate).reversed());
+        return flakes;
+    }
+
+    // Passing tests whose median over the last `recentRuns` is `factor` times the median of the runs before them
+    public static List<Regression> regressions(List<Entry> entries, int recentRuns, int baselineRuns, double factor) {
+        List<Regression> regressions = new ArrayList<>();
+        for (List<Entry> results : byTest(entries).values()) {
+            List<Long> passed = results.stream().filter(Entry::passed).map(Entry::durationMs).toList();
+            if (passed.size() < recentRuns + Math.min(3, baselineRuns)) {
+                continue;
+            }
+            List<Long> recent = passed.subList(passed.size() - recentRuns, passed.size());
+            List<Long> baseline = passed.subList(
+                    Math.max(0, passed.size() - recentRuns - baselineRuns), passed.size() - recentRuns);
+            long recentMs = median(recent);
+            long baselineMs = median(baseline);
+            if (baselineMs > 0 && recentMs >= baselineMs * factor) {
+                regressions.add(new Regression(results.get(0).test(), results.get(0).tenant(), baselineMs, recentMs));
+            }
+        }
+        regressions.sort(Comparator.comparingDouble(Regression::ratio).reversed());
+        return regressions;
+    }
+
+    private static Map<String, List<Entry>> byTest(List<Entry> entries) {
+        Map<String, List<Entry>> byTest = new LinkedHashMap<>();
+        for (Entry entry : entries) {
+            byTest.computeIfAbsent(entry.tenant() + "|" + entry.test(), k -> new ArrayList<>()).add(entry);
+        }
+        return byTest;
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private static void read(Path file, Instant since, List<Entry> entries) {
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JSONObject raw = new JSONObject(line);
+                Instant at = Instant.parse(raw.getString("at"));
+                if (at.isBefore(since)) {
+                    continue;
+                }
+                entries.add(new Entry(
+                        raw.getString("run"),
+                        at,
+                        raw.optString("test", raw.optString("title")),
+                        raw.optString("tenant"),
+                        raw.optString("status"),
+                        raw.optLong("timeMs"),
+                        raw));
+            }
+        } catch (IOException | JSONException e) {
+            // A run killed mid-write leaves a truncated last member; keep what was readable
+            log.debug("Run history {} partly unreadable: {}", file, e.getMessage());
+        }
+    }
+
+    // Month directories (current runs) and <yyyy-MM>.jsonl.gz archives
+    private static List<Path> segments() {
+        if (!Files.isDirectory(DIR)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(DIR)) {
+            return files.filter(path -> month(path) != null).sorted().toList();
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
+    private static List<Path> runFiles(Path month) {
+        try (Stream<Path> files = Files.list(month)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".jsonl.gz"))
+                    .sorted(Comparator.comparingLong(RunHistory::modified))
+                    .toList();
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
+    private static YearMonth month(Path path) {
+        String name = path.getFileName().toString().replace(".jsonl.gz", "");
+        try {
+            return YearMonth.parse(name);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static long modified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void delete(Path path) throws IOException {
+        try (Stream<Path> files = Files.walk(path)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.qa.nal.utils;
+
+import java.time.Instant;
+import java.util.*;
+import org.json.JSONObject;
+import org.junit.jupiter.api.*;
+
+class RunHistoryTest {
+
+    private final List<RunHistory.Entry> entries = new ArrayList<>();
+
+    // One result per call, each in a new run, oldest first
+    private void add(String test, String tenant, String status, long durationMs) {
+        int run = entries.size();
+        entries.add(new RunHistory.Entry(
+                "run-" + run, Instant.EPOCH.plusSeconds(run), test, tenant, status, durationMs, new JSONObject()));
+    }
+
+    private void add(String test, String... statuses) {
+        for (String status : statuses) {
+            add(test, "bsc-dev", status, 1000);
+        }
+    }
+
+    private void addPassed(String test, long... durations) {
+        for (long duration : durations) {
+            add(test, "bsc-dev", "passed", duration);
+        }
+    }
+
+    @Test
+    void flakyReportsTestsThatFlipBetweenOutcomes() {
+        add("alternating", "passed", "failed", "passed", "failed", "passed");
+        add("onceFailed", "passed", "passed", "passed", "passed", "failed");
+        add("stable", "passed", "passed", "passed");
+        add("broken", "failed", "failed", "failed");
+
+        List<RunHistory.Flake> flakes = RunHistory.flaky(entries, 5, 0.2);
+
+        Assertions.assertEquals(
+                List.of("alternating", "onceFailed"), flakes.stream().map(RunHistory.Flake::test).toList());
+        RunHistory.Flake alternating = flakes.get(0);
+        Assertions.assertEquals(5, alternating.runs());
+        Assertions.assertEquals(2, alternating.failures());
+        Assertions.assertEquals(1.0, alternating.flipRate(), 1e-9);
+        Assertions.assertEquals(0.25, flakes.get(1).flipRate(), 1e-9);
+    }
+
+    @Test
+    void flakyHonoursMinFlipRate() {
+        add("alternating", "passed", "failed", "passed", "failed", "passed");
+        add("onceFailed", "passed", "passed", "passed", "passed", "failed");
+
+        List<RunHistory.Flake> flakes = RunHistory.flaky(entries, 5, 0.5);
+
+        Assertions.assertEquals(List.of("alternating"), flakes.stream().map(RunHistory.Flake::test).toList());
+    }
+
+    @Test
+    void flakyOnlyLooksAtRecentRuns() {
+        // Failed long ago, stable since
+        add("recovered", "failed", "passed", "failed", "passed", "passed", "passed", "passed");
+
+        Assertions.assertTrue(RunHistory.flaky(entries, 4, 0.1).isEmpty());
+        Assertions.assertEquals(1, RunHistory.flaky(entries, 7, 0.1).size());
+    }
+
+    @Test
+    void flakyKeepsTenantsApart() {
+        add("login", "bsc-dev", "passed", 1000);
+        add("login", "amd-dev", "failed", 1000);
+        add("login", "bsc-dev", "passed", 1000);
+        add("login", "amd-dev", "failed", 1000);
+
+        Assertions.assertTrue(RunHistory.flaky(entries, 5, 0.1).isEmpty());
+    }
+
+    @Test
+    void regressionsCompareRecentAndBaselineMedians() {
+        addPassed("slower", 1000, 1100, 900, 1000, 1050, 2000, 2100, 1900);
+        addPassed("steady", 1000, 1100, 900, 1000, 1050, 1000, 1100, 950);
+
+        List<RunHistory.Regression> regressions = RunHistory.regressions(entries, 3, 5, 1.5);
+
+        Assertions.assertEquals(1, regressions.size());
+        RunHistory.Regression slower = regressions.get(0);
+        Assertions.assertEquals("slower", slower.test());
+        Assertions.assertEquals(1000, slower.baselineMs());
+        Assertions.assertEquals(2000, slower.recentMs());
+        Assertions.assertEquals(2.0, slower.ratio(), 1e-9);
+    }
+
+    @Test
+    void regressionsIgnoreFailedRuns() {
+        addPassed("timesOut", 1000, 1000, 1000, 1000, 1000);
+        add("timesOut", "bsc-dev", "failed", 60000);
+        add("timesOut", "bsc-dev", "failed", 60000);
+        addPassed("timesOut", 1000, 1100, 1000);
+
+        Assertions.assertTrue(RunHistory.regressions(entries, 3, 5, 1.5).isEmpty());
+    }
+
+    @Test
+    void regressionsNeedEnoughHistory() {
+        addPassed("new", 1000, 3000, 3000, 3000);
+
+        Assertions.assertTrue(RunHistory.regressions(entries, 3, 5, 1.5).isEmpty());
+    }
+
+    @Test
+    void regressionsAreSortedByRatio() {
+        addPassed("doubled", 1000, 1000, 1000, 2000, 2000);
+        addPassed("tripled", 1000, 1000, 1000, 3000, 3000);
+
+        List<RunHistory.Regression> regressions = RunHistory.regressions(entries, 2, 3, 1.5);
+
+        Assertions.assertEquals(
+                List.of("tripled", "doubled"), regressions.stream().map(RunHistory.Regression::test).toList());
+    }
+}
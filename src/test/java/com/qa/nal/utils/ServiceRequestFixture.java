@@ -0,0 +1,179 @@
+package com.qa.nal.utils;
+
+import com.qa.nal.utils.ApiClient.ApiCall;
+import com.qa.nal.utils.ApiClient.ApiResult;
+import java.nio.file.*;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import org.json.*;
+import org.slf4j.*;
+
+// Creates service requests straight through the backend (same payload as the Create New modal) so scenario tests
+// can deep-link into n7-predictions instead of spending ~15s filling the modal.
+// -Dsr.fixture=api switches createNewServiceRequest over; the default (ui) keeps exercising the modal.
+// The predictions route and where the create response carries the new id are learned from the modal flow: each UI
+// run stores the app's own create response and the URL it landed on under build/sr-fixture/<tenant>.json. Until a
+// tenant has been learned, createNewServiceRequest goes through the modal. -Dsr.deepLink ({loginUrl} and {id} are
+// substituted) together with -Dsr.idPath (e.g. data.caseId) set both by hand instead.
+public class ServiceRequestFixture {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceRequestFixture.class);
+
+    private static final Path DIR = Paths.get(System.getProperty("sr.fixture.dir", "build/sr-fixture"));
+
+    public record SeededRequest(String id, String manufacturer, String description, String payload, String body) {}
+
+    // Deep link with {loginUrl} and {id} placeholders, and the dotted path of the id in the create response
+    public record Route(String deepLink, String idPath) {}
+
+    public static boolean enabled() {
+        return "api".equalsIgnoreCase(System.getProperty("sr.fixture", "ui"));
+    }
+
+    // The tenant's route, from -Dsr.deepLink/-Dsr.idPath or learned from a UI run; null when neither exists yet
+    public static Route route(Tenant tenant) {
+        String deepLink = System.getProperty("sr.deepLink");
+        String idPath = System.getProperty("sr.idPath");
+        if (deepLink != null && idPath != null) {
+            return new Route(deepLink, idPath);
+        }
+        Path file = DIR.resolve(tenant.name() + ".json");
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            JSONObject json = new JSONObject(Files.readString(file));
+            return new Route(json.getString("deepLink"), json.getString("idPath"));
+        } catch (Exception e) {
+            log.warn("⚠️ Could not read SR route {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    // Called by the modal flow with the app's create response and the predictions URL it opened
+    public static void learn(Tenant tenant, String createResponse, String predictionsUrl) {
+        Object json;
+        try {
+            json = new JSONTokener(createResponse).nextValue();
+        } catch (JSONException e) {
+            log.warn("⚠️ Create response is not JSON, SR route not learned: {}", e.getMessage());
+            return;
+        }
+        String idPath = pathOfSegment(json, "", predictionsUrl);
+        if (idPath == null) {
+            log.warn("⚠️ No value of the create response appears in {}, SR route not learned", predictionsUrl);
+            return;
+        }
+        String id = String.valueOf(valueAt(json, idPath));
+        String deepLink = segment(id).matcher(predictionsUrl).replaceFirst("{id}");
+        if (deepLink.startsWith(tenant.loginUrl())) {
+            deepLink = "{loginUrl}" + deepLink.substring(tenant.loginUrl().length());
+        }
+
+        Route route = new Route(deepLink, idPath);
+        if (route.equals(route(tenant))) {
+            return;
+        }
+        try {
+            Files.createDirectories(DIR);
+            Path file = DIR.resolve(tenant.name() + ".json");
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(tmp, new JSONObject()
+                    .put("deepLink", deepLink)
+                    .put("idPath", idPath)
+                    .put("learnedFrom", predictionsUrl)
+                    .put("learnedAt", Instant.now().toString())
+                    .toString(2));
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("✅ SR route for {} learned: {} (id at {})", tenant, deepLink, idPath);
+        } catch (Exception e) {
+            log.warn("⚠️ Could not store SR route for {}: {}", tenant, e.getMessage());
+        }
+    }
+
+    public static SeededRequest create(Tenant tenant) {
+        String manufacturer = System.getProperty("sr.manufacturer", Objects.toString(tenant.modelSearch(), ""));
+        String description = TestDataRepository.randomDescription(TestDataRepository.SR_DESCRIPTIONS, "devdemo");
+        return create(tenant, manufacturer, description);
+    }
+
+    public static SeededRequest create(Tenant tenant, String manufacturer, String description) {
+        Route route = route(tenant);
+        if (route == null) {
+            throw new IllegalStateException("No SR route learned for " + tenant
+                    + ". Run createNewServiceRequest once with -Dsr.fixture=ui, or set -Dsr.deepLink and -Dsr.idPath");
+        }
+        String payload = new JSONObject()
+                .put("Manufacturer", manufacturer)
+                .put("Description", description)
+                .put("N7-client-locale", "en")
+                .toString();
+
+        ApiResult result = ApiClient.call(tenant, new ApiCall("POST", "/data/caseobject/create", payload));
+        if (!result.ok()) {
+            throw new IllegalStateException(String.format(
+                    "Failed to seed service request. Status: %d | Error: %s | Body: %s",
+                    result.status(),
+                    result.error(),
+                    result.body()));
+        }
+
+        Object id = valueAt(new JSONTokener(result.body()).nextValue(), route.idPath());
+        if (id == null || id == JSONObject.NULL || String.valueOf(id).isBlank()) {
+            throw new IllegalStateException(String.format(
+                    "Case id not found at %s in create response: %s", route.idPath(), result.body()));
+        }
+        log.info("✅ Service request {} seeded via API in {}ms", id, result.nanos() / 1_000_000);
+        return new SeededRequest(String.valueOf(id), manufacturer, description, payload, result.body());
+    }
+
+    public static String deepLink(Tenant tenant, SeededRequest request) {
+        return route(tenant).deepLink().replace("{loginUrl}", tenant.loginUrl()).replace("{id}", request.id());
+    }
+
+    // Dotted path ("data.caseId", "items.0.id", "" for a bare value) of the first scalar that appears in the URL as a
+    // path segment or query value
+    private static String pathOfSegment(Object json, String path, String url) {
+        if (json instanceof JSONObject object) {
+            for (String key : object.keySet()) {
+                String found = pathOfSegment(object.get(key), path.isEmpty() ? key : path + "." + key, url);
+                if (found != null) {
+                    return found;
+                }
+            }
+        } else if (json instanceof JSONArray array) {
+            for (int i = 0; i < array.length(); i++) {
+                String found = pathOfSegment(array.get(i), path.isEmpty() ? "" + i : path + "." + i, url);
+                if (found != null) {
+                    return found;
+                }
+            }
+        } else if (json != null && json != JSONObject.NULL) {
+            String value = String.valueOf(json).trim();
+            // Short values like "en" or 1 would match by accident
+            if (value.length() >= 4 && segment(value).matcher(url).find()) {
+                return path;
+            }
+        }
+        return null;
+    }
+
+    private static Pattern segment(String value) {
+        return Pattern.compile("(?<=[/=])" + Pattern.quote(value) + "(?=[/?#&]|$)");
+    }
+
+    private static Object valueAt(Object json, String path) {
+        Object value = json;
+        for (String key : path.isEmpty() ? new String[0] : path.split("\\.")) {
+            if (value instanceof JSONObject object) {
+                value = object.opt(key);
+            } else if (value instanceof JSONArray array && key.matches("\\d+")) {
+                value = array.opt(Integer.parseInt(key));
+            } else {
+                return null;
+            }
+        }
+        return value;
+    }
+}
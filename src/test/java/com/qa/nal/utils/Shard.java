@@ -0,0 +1,73 @@
+package com.qa.nal.utils;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+// Which slice of the regression this JVM runs: -Dshard.index (0-based) and -Dshard.total, or SHARD_INDEX and
+// SHARD_TOTAL from the agent's environment. Assignment only depends on the unit keys (and weights), so every agent
+// computes the same split without talking to the others.
+public record Shard(int index, int total) {
+
+    public static final Path REPORT_DIR = Paths.get("target", "shards");
+
+    public Shard {
+        if (total < 1 || index < 0 || index >= total) {
+            throw new IllegalArgumentException(
+                    "Invalid shard " + index + " of " + total + ". Expected 0 <= shard.index < shard.total");
+        }
+    }
+
+    public static Shard current() {
+        return new Shard(setting("shard.index", "SHARD_INDEX", 0), setting("shard.total", "SHARD_TOTAL", 1));
+    }
+
+    public String label() {
+        return "shard-" + index;
+    }
+
+    public Path reportDir() {
+        return REPORT_DIR.resolve(label());
+    }
+
+    // Longest processing time first, so shards finish close together; weights must be the same on every agent
+    public <T> List<T> assign(List<T> units, Function<T, String> key, ToLongFunction<T> weightMs) {
+        return pack(units, key, weightMs, total).get(index);
+    }
+
+    // LPT: the heaviest remaining unit goes to the least loaded bin. Ties are broken by key and bin index, which keeps
+    // the result deterministic; every bin lists its units heaviest first.
+    public static <T> List<List<T>> pack(List<T> units, Function<T, String> key, ToLongFunction<T> weightMs, int bins) {
+        List<T> sorted = new ArrayList<>(units);
+        sorted.sort(Comparator.comparingLong(weightMs).reversed().thenComparing(key));
+
+        List<List<T>> packed = new ArrayList<>();
+        long[] load = new long[bins];
+        for (int i = 0; i < bins; i++) {
+            packed.add(new ArrayList<>());
+        }
+        for (T unit : sorted) {
+            int lightest = 0;
+            for (int i = 1; i < bins; i++) {
+                if (load[i] < load[lightest]) {
+                    lightest = i;
+                }
+            }
+            packed.get(lightest).add(unit);
+            load[lightest] += weightMs.applyAsLong(unit);
+        }
+        return packed;
+    }
+
+    @Override
+    public String toString() {
+        return (index + 1) + "/" + total;
+    }
+
+    private static int setting(String property, String env, int fallback) {
+        String value = System.getProperty(property, System.getenv(env));
+        return value == null || value.isBlank() ? fallback : Integer.parseInt(value.trim());
+    }
+}
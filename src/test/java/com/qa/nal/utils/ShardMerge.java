@@ -0,0 +1,139 @@
+package com.qa.nal.utils;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import org.json.*;
+import org.slf4j.*;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+// Combines what the shards left under target/shards/shard-*/ (unstashed side by side on the merge agent): every
+// TEST-*.xml into one <testsuites> file, and the latency histograms into one report.
+public class ShardMerge {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardMerge.class);
+
+    public record Totals(int suites, int tests, int failures, int errors, int skipped, double timeSeconds) {
+        public boolean failed() {
+            return failures > 0 || errors > 0;
+        }
+    }
+
+    public static List<Path> shardDirs(Path root) {
+        if (!Files.isDirectory(root)) {
+            return List.of();
+        }
+        try (Stream<Path> dirs = Files.list(root)) {
+            return dirs.filter(Files::isDirectory)
+                    .filter(dir -> dir.getFileName().toString().startsWith("shard-"))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new RuntimeException("Error listing shards in " + root + ": " + e.getMessage(), e);
+        }
+    }
+
+    // Suites are renamed <shard>/<path> so identical engine names from different shards stay apart
+    public static Totals junit(List<Path> shards, Path out) {
+        try {
+            DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+            Document merged = builder.newDocument();
+            Element root = merged.createElement("testsuites");
+            merged.appendChild(root);
+
+            int suites = 0, tests = 0, failures = 0, errors = 0, skipped = 0;
+            double time = 0;
+            for (Path shard : shards) {
+                for (Path file : reports(shard)) {
+                    Element suite = builder.parse(file.toFile()).getDocumentElement();
+                    Element copy = (Element) merged.importNode(suite, true);
+                    String relative = shard.relativize(file.getParent()).toString().replace('\\', '/');
+                    copy.setAttribute(
+                            "name",
+                            shard.getFileName() + (relative.isEmpty() ? "" : "/" + relative) + "/"
+                                    + suite.getAttribute("name"));
+                    root.appendChild(copy);
+
+                    suites++;
+                    tests += number(suite, "tests");
+                    failures += number(suite, "failures");
+                    errors += number(suite, "errors");
+                    skipped += number(suite, "skipped");
+                    time += decimal(suite, "time");
+                }
+            }
+            root.setAttribute("tests", String.valueOf(tests));
+            root.setAttribute("failures", String.valueOf(failures));
+            root.setAttribute("errors", String.valueOf(errors));
+            root.setAttribute("skipped", String.valueOf(skipped));
+            root.setAttribute("time", String.format(Locale.ROOT, "%.3f", time));
+
+            Files.createDirectories(out.getParent());
+            Transformer transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+            transformer.transform(new DOMSource(merged), new StreamResult(out.toFile()));
+
+            Totals totals = new Totals(suites, tests, failures, errors, skipped, time);
+            log.info("Merged {} JUnit report(s) from {} shard(s) into {}", suites, shards.size(), out);
+            return totals;
+        } catch (Exception e) {
+            throw new RuntimeException("Error merging JUnit reports: " + e.getMessage(), e);
+        }
+    }
+
+    // Sum of every shard's latency/api-latency.json, percentiles recomputed from the merged histograms
+    public static LatencyRecorder latency(List<Path> shards) {
+        LatencyRecorder merged = new LatencyRecorder();
+        for (Path shard : shards) {
+            Path file = shard.resolve("latency").resolve("api-latency.json");
+            if (!Files.exists(file)) {
+                continue;
+            }
+            try {
+                JSONArray endpoints = new JSONObject(Files.readString(file)).getJSONArray("endpoints");
+                for (int i = 0; i < endpoints.length(); i++) {
+                    JSONObject endpoint = endpoints.getJSONObject(i);
+                    merged.merge(
+                            endpoint.getString("tenant"),
+                            endpoint.getString("endpoint"),
+                            endpoint.getString("histogram"),
+                            endpoint.optLong("errors"));
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Error reading " + file + ": " + e.getMessage(), e);
+            }
+        }
+        return merged;
+    }
+
+    private static List<Path> reports(Path shard) throws IOException {
+        try (Stream<Path> files = Files.walk(shard)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith("TEST-") && name.endsWith(".xml");
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static int number(Element element, String attribute) {
+        String value = element.getAttribute(attribute);
+        return value.isBlank() ? 0 : Integer.parseInt(value.trim());
+    }
+
+    private static double decimal(Element element, String attribute) {
+        String value = element.getAttribute(attribute);
+        return value.isBlank() ? 0 : Double.parseDouble(value.trim().replace(",", ""));
+    }
+}
@@ -0,0 +1,88 @@
+package com.qa.nal.utils;
+
+import java.util.*;
+import org.junit.jupiter.api.*;
+
+class ShardTest {
+
+    record Unit(String key, long ms) {}
+
+    private static List<Unit> units(long... weights) {
+        List<Unit> units = new ArrayList<>();
+        for (int i = 0; i < weights.length; i++) {
+            units.add(new Unit("unit-" + i, weights[i]));
+        }
+        return units;
+    }
+
+    private static long load(List<Unit> bin) {
+        return bin.stream().mapToLong(Unit::ms).sum();
+    }
+
+    @Test
+    void packAssignsEveryUnitExactlyOnce() {
+        List<Unit> units = units(9, 1, 4, 4, 7, 2, 2, 8, 3, 5, 6);
+        List<List<Unit>> packed = Shard.pack(units, Unit::key, Unit::ms, 4);
+
+        Assertions.assertEquals(4, packed.size());
+        List<Unit> all = packed.stream().flatMap(List::stream).toList();
+        Assertions.assertEquals(units.size(), all.size());
+        Assertions.assertEquals(new HashSet<>(units), new HashSet<>(all));
+    }
+
+    @Test
+    void packBalancesLoadLongestFirst() {
+        List<List<Unit>> packed = Shard.pack(units(5, 4, 3, 3, 2, 1), Unit::key, Unit::ms, 3);
+
+        for (List<Unit> bin : packed) {
+            Assertions.assertEquals(6, load(bin), "Unbalanced bin " + bin);
+        }
+        // Heaviest first within each bin
+        Assertions.assertEquals(5, packed.get(0).get(0).ms());
+        Assertions.assertEquals(4, packed.get(1).get(0).ms());
+    }
+
+    @Test
+    void packIsIndependentOfInputOrder() {
+        List<Unit> units = units(9, 1, 4, 4, 7, 2, 2, 8, 3, 5, 6);
+        List<List<Unit>> expected = Shard.pack(units, Unit::key, Unit::ms, 3);
+
+        List<Unit> shuffled = new ArrayList<>(units);
+        Collections.shuffle(shuffled, new Random(42));
+        Assertions.assertEquals(expected, Shard.pack(shuffled, Unit::key, Unit::ms, 3));
+    }
+
+    @Test
+    void packBreaksTiesByKey() {
+        List<Unit> units = List.of(new Unit("b", 1), new Unit("c", 1), new Unit("a", 1));
+        List<List<Unit>> packed = Shard.pack(units, Unit::key, Unit::ms, 3);
+
+        Assertions.assertEquals("a", packed.get(0).get(0).key());
+        Assertions.assertEquals("b", packed.get(1).get(0).key());
+        Assertions.assertEquals("c", packed.get(2).get(0).key());
+    }
+
+    @Test
+    void packLeavesSpareBinsEmpty() {
+        List<List<Unit>> packed = Shard.pack(units(3, 2), Unit::key, Unit::ms, 4);
+
+        Assertions.assertEquals(List.of(1, 1, 0, 0), packed.stream().map(List::size).toList());
+    }
+
+    @Test
+    void assignReturnsThisShardsBin() {
+        List<Unit> units = units(9, 1, 4, 4, 7, 2, 2, 8, 3, 5, 6);
+        List<List<Unit>> packed = Shard.pack(units, Unit::key, Unit::ms, 3);
+
+        for (int index = 0; index < 3; index++) {
+            Assertions.assertEquals(packed.get(index), new Shard(index, 3).assign(units, Unit::key, Unit::ms));
+        }
+    }
+
+    @Test
+    void rejectsIndexOutsideTotal() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new Shard(2, 2));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new Shard(0, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new Shard(-1, 2));
+    }
+}
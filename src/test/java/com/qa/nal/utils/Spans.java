@@ -0,0 +1,310 @@
+package com.qa.nal.utils;
+
+import com.microsoft.playwright.*;
+import java.lang.reflect.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.json.*;
+import org.slf4j.*;
+
+// Nested step timings (nanoTime) per thread, exported as Chrome trace JSON: open in chrome://tracing, Perfetto or
+// speedscope to see which step of a slow test took the time. The JVM's trace is written once, when it exits, to
+// target/spans/ui-spans.json. Disable with -Dspans.disabled=true.
+public class Spans {
+
+    private static final Logger log = LoggerFactory.getLogger(Spans.class);
+
+    public static final Path REPORT_DIR = Paths.get("target", "spans");
+
+    public static final Path TRACE_FILE = REPORT_DIR.resolve("ui-spans.json");
+
+    private static final boolean ENABLED = !Boolean.getBoolean("spans.disabled");
+
+    // Trace timestamps are relative to class load
+    private static final long ORIGIN = System.nanoTime();
+
+    private static final ThreadLocal<Deque<Span>> stack = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private static final Queue<JSONObject> events = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger eventCount = new AtomicInteger();
+
+    // Soak runs would otherwise keep every Playwright call in memory; step timings are still reported past the cap
+    private static final int MAX_EVENTS = Integer.getInteger("spans.maxEvents", 200_000);
+    private static final Map<Long, String> threads = new ConcurrentHashMap<>();
+
+    // step() markers finished on this thread, until a reporter drains them for the test result
+    private static final ThreadLocal<List<JSONObject>> finishedSteps = ThreadLocal.withInitial(ArrayList::new);
+
+    private static final int MAX_STEPS = 200;
+
+    private static final Span NOOP = new Span(null, null, false);
+
+    static {
+        if (ENABLED) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> write(TRACE_FILE), "spans-write"));
+        }
+    }
+
+    public static final class Span implements AutoCloseable {
+        private final String name;
+        private final String category;
+        private final boolean step;
+        private final long start = System.nanoTime();
+        private final Map<String, Object> args = new LinkedHashMap<>();
+        private boolean closed;
+
+        private Span(String name, String category, boolean step) {
+            this.name = name;
+            this.category = category;
+            this.step = step;
+        }
+
+        public Span arg(String key, Object value) {
+            if (name != null) {
+                args.put(key, value);
+            }
+            return this;
+        }
+
+        // Also closes anything opened inside it that is still open, e.g. after an exception
+        @Override
+        public void close() {
+            if (name == null || closed) {
+                return;
+            }
+            Deque<Span> spans = stack.get();
+            if (!spans.contains(this)) {
+                return;
+            }
+            while (!spans.isEmpty()) {
+                Span top = spans.pop();
+                top.finish();
+                if (top == this) {
+                    break;
+                }
+            }
+        }
+
+        private void finish() {
+            closed = true;
+            long end = System.nanoTime();
+            Thread thread = Thread.currentThread();
+            threads.putIfAbsent(thread.threadId(), thread.getName());
+
+            JSONObject event = new JSONObject()
+                    .put("name", name)
+                    .put("cat", category)
+                    .put("ph", "X")
+                    .put("ts", (start - ORIGIN) / 1000.0)
+                    .put("dur", (end - start) / 1000.0)
+                    .put("pid", 1)
+                    .put("tid", thread.threadId());
+            if (!args.isEmpty()) {
+                event.put("args", new JSONObject(args));
+            }
+            if (eventCount.incrementAndGet() <= MAX_EVENTS) {
+                events.add(event);
+            } else if (eventCount.get() == MAX_EVENTS + 1) {
+                log.warn("⚠️ {} spans recorded, the trace keeps only the first ones", MAX_EVENTS);
+            }
+
+            List<JSONObject> steps = finishedSteps.get();
+            if (step && steps.size() < MAX_STEPS) {
+                steps.add(new JSONObject().put("name", name).put("durationMs", (end - start) / 1_000_000));
+            }
+        }
+    }
+
+    public static boolean enabled() {
+        return ENABLED;
+    }
+
+    // try (Span s = Spans.open("fill picklist")) { ... }
+    public static Span open(String name) {
+        return open(name, "step");
+    }
+
+    public static Span open(String name, String category) {
+        if (!ENABLED) {
+            return NOOP;
+        }
+        Span span = new Span(name, category, false);
+        stack.get().push(span);
+        return span;
+    }
+
+    // Sequential markers inside a long test: ends the previous step() at this level and starts the next one
+    public static Span step(String name) {
+        if (!ENABLED) {
+            return NOOP;
+        }
+        Deque<Span> spans = stack.get();
+        if (!spans.isEmpty() && spans.peek().step) {
+            spans.peek().close();
+        }
+        Span span = new Span(name, "step", true);
+        spans.push(span);
+        return span;
+    }
+
+    // Steps finished on this thread since the last call, oldest first
+    public static List<JSONObject> drainSteps() {
+        List<JSONObject> steps = new ArrayList<>(finishedSteps.get());
+        finishedSteps.get().clear();
+        return steps;
+    }
+
+    public static <T> T time(String name, Supplier<T> action) {
+        try (Span ignored = open(name)) {
+            return action.get();
+        }
+    }
+
+    public static void time(String name, Runnable action) {
+        try (Span ignored = open(name)) {
+            action.run();
+        }
+    }
+
+    // Page whose calls (and the locators it hands out) are each recorded as a span
+    public static Page trace(Page page) {
+        return ENABLED ? proxy(Page.class, page) : page;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, new Tracer(type, target));
+    }
+
+    private static final class Tracer implements InvocationHandler {
+        private final Class<?> type;
+        private final Object target;
+
+        Tracer(Class<?> type, Object target) {
+            this.type = type;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> args[0] instanceof Proxy && Proxy.getInvocationHandler(args[0]) == this;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> method.invoke(target, args);
+                };
+            }
+
+            Object[] realArgs = unwrap(args);
+            Class<?> returns = method.getReturnType();
+
+            // Locator builders don't talk to the browser; only wrap what they return
+            if (returns == Locator.class) {
+                return proxy(Locator.class, (Locator) call(method, realArgs));
+            }
+
+            Span span = open(type.getSimpleName().toLowerCase() + "." + method.getName(), "playwright");
+            if (realArgs != null && realArgs.length > 0 && realArgs[0] instanceof String first) {
+                span.arg("arg", first.length() > 200 ? first.substring(0, 200) : first);
+            }
+            try {
+                Object result = call(method, realArgs);
+                if (result instanceof List<?> list && !list.isEmpty() && list.get(0) instanceof Locator) {
+                    List<Locator> wrapped = new ArrayList<>();
+                    for (Object locator : list) {
+                        wrapped.add(proxy(Locator.class, (Locator) locator));
+                    }
+                    return wrapped;
+                }
+                return result;
+            } finally {
+                span.close();
+            }
+        }
+
+        private Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    // Playwright casts Locator arguments (and has/hasNot in options) to its own implementation. Options holding a
+    // traced locator are copied, so the caller's object (which it may reuse) keeps its own values.
+    private static Object[] unwrap(Object[] args) throws ReflectiveOperationException {
+        if (args == null) {
+            return null;
+        }
+        Object[] real = args.clone();
+        for (int i = 0; i < real.length; i++) {
+            real[i] = unwrapOptions(unwrapLocator(real[i]));
+        }
+        return real;
+    }
+
+    private static Object unwrapOptions(Object arg) throws ReflectiveOperationException {
+        if (arg == null || !arg.getClass().getName().startsWith("com.microsoft.playwright.")) {
+            return arg;
+        }
+        List<Field> fields = Arrays.stream(arg.getClass().getFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()) && !Modifier.isFinal(field.getModifiers()))
+                .toList();
+        boolean traced = false;
+        for (Field field : fields) {
+            traced |= field.getType() == Locator.class && unwrapLocator(field.get(arg)) != field.get(arg);
+        }
+        if (!traced) {
+            return arg;
+        }
+        Object copy = arg.getClass().getConstructor().newInstance();
+        for (Field field : fields) {
+            Object value = field.get(arg);
+            field.set(copy, field.getType() == Locator.class ? unwrapLocator(value) : value);
+        }
+        return copy;
+    }
+
+    private static Object unwrapLocator(Object value) {
+        if (value instanceof Proxy && Proxy.getInvocationHandler(value) instanceof Tracer tracer) {
+            return tracer.target;
+        }
+        return value;
+    }
+
+    // Everything recorded in this JVM so far; called once from the shutdown hook
+    public static void write(Path file) {
+        if (!ENABLED || events.isEmpty()) {
+            return;
+        }
+        JSONArray trace = new JSONArray();
+        threads.forEach((id, name) -> trace.put(new JSONObject()
+                .put("name", "thread_name")
+                .put("ph", "M")
+                .put("pid", 1)
+                .put("tid", id)
+                .put("args", new JSONObject().put("name", name))));
+        events.forEach(trace::put);
+
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(tmp, new JSONObject()
+                    .put("displayTimeUnit", "ms")
+                    .put("traceEvents", trace)
+                    .toString());
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Span trace written to {} ({} spans)", file, events.size());
+        } catch (Exception e) {
+            log.warn("⚠️ Could not write span trace: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.qa.nal.utils;
+
+import java.io.PrintWriter;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import org.junit.platform.engine.DiscoverySelector;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+import org.junit.platform.reporting.legacy.xml.LegacyXmlReportGeneratingListener;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+// Runs JUnit selectors in-process on the calling thread, so TenantRegistry.runAs() is visible to the tests
+public class SuiteLauncher {
+
+    public static TestExecutionSummary run(Path reportDir, List<? extends DiscoverySelector> selectors) {
+        return run(reportDir, selectors, List.of());
+    }
+
+    // `unreported` still run (e.g. a branch's setup chain) but are left out of the JUnit XML, Qase and the run history
+    public static TestExecutionSummary run(
+            Path reportDir, List<? extends DiscoverySelector> selectors, Collection<Method> unreported) {
+        try {
+            Files.createDirectories(reportDir);
+        } catch (Exception e) {
+            throw new RuntimeException("Error creating report dir: " + e.getMessage(), e);
+        }
+
+        LauncherDiscoveryRequest request = LauncherDiscoveryRequestBuilder.request()
+                .selectors(selectors)
+                .configurationParameter("junit.jupiter.extensions.autodetection.enabled", "true")
+                .build();
+
+        SummaryGeneratingListener summary = new SummaryGeneratingListener();
+        LegacyXmlReportGeneratingListener xmlReport = new LegacyXmlReportGeneratingListener(
+                reportDir,
+                new PrintWriter(System.err, true));
+
+        Launcher launcher = LauncherFactory.create();
+        TestResultListener.suppress(unreported);
+        try {
+            launcher.execute(request, summary, xmlReport);
+        } finally {
+            TestResultListener.suppress(List.of());
+        }
+        if (!unreported.isEmpty()) {
+            dropFromXml(reportDir, unreported);
+        }
+        return summary.getSummary();
+    }
+
+    // Removes the testcases of `methods` from the TEST-*.xml files and corrects the suite totals
+    private static void dropFromXml(Path reportDir, Collection<Method> methods) {
+        Set<String> names = methods.stream().map(Method::getName).collect(Collectors.toSet());
+        try (Stream<Path> files = Files.list(reportDir)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().matches("TEST-.*\\.xml")).toList()) {
+                Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file.toFile());
+                Element suite = document.getDocumentElement();
+                NodeList testcases = suite.getElementsByTagName("testcase");
+                for (int i = testcases.getLength() - 1; i >= 0; i--) {
+                    Element testcase = (Element) testcases.item(i);
+                    // Legacy reporting names look like "performLogin()"
+                    if (!names.contains(testcase.getAttribute("name").replaceAll("\\(.*$", ""))) {
+                        continue;
+                    }
+                    decrement(suite, "tests");
+                    for (String outcome : List.of("failure", "error", "skipped")) {
+                        if (testcase.getElementsByTagName(outcome).getLength() > 0) {
+                            decrement(suite, outcome.equals("skipped") ? "skipped" : outcome + "s");
+                        }
+                    }
+                    testcase.getParentNode().removeChild(testcase);
+                }
+                TransformerFactory.newInstance()
+                        .newTransformer()
+                        .transform(new DOMSource(document), new StreamResult(file.toFile()));
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Error filtering JUnit reports in " + reportDir + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void decrement(Element suite, String attribute) {
+        String value = suite.getAttribute(attribute);
+        if (!value.isBlank()) {
+            suite.setAttribute(attribute, String.valueOf(Math.max(0, Integer.parseInt(value.trim()) - 1)));
+        }
+    }
+}
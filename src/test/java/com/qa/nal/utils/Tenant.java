@@ -0,0 +1,34 @@
+package com.qa.nal.utils;
+
+// One environment block from .env (e.g. "#BSC DEV:-" -> bsc-dev)
+public record Tenant(String name, String loginUrl, String username, String password) {
+
+    public String baseUrl() {
+        return loginUrl + ":8889";
+    }
+
+    // Search text for the model/manufacturer picklist in the Create New SR modal, null = pick from the full list
+    public String modelSearch() {
+        return switch (name) {
+            case "accuray-dev" -> "CYBER";
+            case "ni-dev" -> "DAQ";
+            case "swisslog-dev" -> "BLOW";
+            case "keysight-dev" -> "N9042B";
+            case "terumo-dev" -> "REVEOS";
+            case "dev6" -> "pc cor";
+            case "626-dev" -> "SYMPH";
+            case "ciena-poc" -> "BLUE";
+            case "crane1-dev" -> "Gorb";
+            case "bsc-dev" -> "Farapulse";
+            case "tke-dev" -> "TKE:TAC32H";
+            case "medtronic-dev" -> "O-Arm";
+            case "burroughs-dev" -> "Burroughs:ATM";
+            default -> null;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
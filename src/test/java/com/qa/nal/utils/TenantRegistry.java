@@ -0,0 +1,136 @@
+package com.qa.nal.utils;
+
+import io.github.cdimascio.dotenv.Dotenv;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.function.Supplier;
+
+public class TenantRegistry {
+
+    private static final String DEFAULT_TENANT = "bsc-dev";
+
+    // Block headers in .env that don't line up with the QASE_ENVIRONMENT names in pom.xml
+    private static final Map<String, String> ALIASES = Map.of("key-sight-dev", "keysight-dev", "poc13", "poc-13");
+
+    private static final InheritableThreadLocal<Tenant> CURRENT = new InheritableThreadLocal<>();
+
+    private static volatile Map<String, Tenant> tenants;
+
+    // Tenant for the calling thread: runAs() > -Dtenant > TENANT env > QASE_ENVIRONMENT > bsc-dev
+    public static Tenant current() {
+        Tenant tenant = CURRENT.get();
+        if (tenant != null) {
+            return tenant;
+        }
+
+        String name = System.getProperty("tenant", System.getenv("TENANT"));
+        if (name == null || name.isBlank()) {
+            name = System.getProperty("QASE_ENVIRONMENT", DEFAULT_TENANT);
+        }
+        return get(name);
+    }
+
+    public static <T> T runAs(Tenant tenant, Supplier<T> action) {
+        Tenant previous = CURRENT.get();
+        CURRENT.set(tenant);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public static Tenant get(String name) {
+        Tenant tenant = all().get(name.trim().toLowerCase());
+        if (tenant == null) {
+            throw new IllegalArgumentException("Tenant '" + name + "' not found in .env. Known: " + all().keySet());
+        }
+        return tenant;
+    }
+
+    // Comma separated list (e.g. -Dtenants=bsc-dev,amd-dev); empty or "all" selects every tenant
+    public static List<Tenant> select(String names) {
+        if (names == null || names.isBlank() || names.equalsIgnoreCase("all")) {
+            return new ArrayList<>(all().values());
+        }
+
+        List<Tenant> selected = new ArrayList<>();
+        for (String name : names.split(",")) {
+            if (!name.isBlank()) {
+                selected.add(get(name));
+            }
+        }
+        return selected;
+    }
+
+    public static Map<String, Tenant> all() {
+        if (tenants == null) {
+            synchronized (TenantRegistry.class) {
+                if (tenants == null) {
+                    tenants = Collections.unmodifiableMap(load(Paths.get(".env")));
+                }
+            }
+        }
+        return tenants;
+    }
+
+    private static Map<String, Tenant> load(Path envFile) {
+        Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(envFile);
+        } catch (Exception e) {
+            throw new RuntimeException("Error reading .env: " + e.getMessage(), e);
+        }
+
+        // "#NAME:-" starts a block, KEY=value lines belong to the last block seen
+        Map<String, List<String>> blocks = new LinkedHashMap<>();
+        String block = null;
+        for (String raw : lines) {
+            String line = raw.trim();
+            if (line.startsWith("#")) {
+                if (line.endsWith(":-")) {
+                    block = line.substring(1, line.length() - 2).trim();
+                    blocks.put(block, new ArrayList<>());
+                }
+            } else if (line.contains("=") && block != null) {
+                blocks.get(block).add(line.substring(0, line.indexOf('=')).trim());
+            }
+        }
+
+        Map<String, Tenant> result = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> entry : blocks.entrySet()) {
+            if (entry.getKey().toUpperCase().startsWith("DEFAULT")) {
+                continue;
+            }
+
+            String urlKey = null;
+            String usernameKey = "APP_USERNAME";
+            String passwordKey = "PASSWORD";
+            for (String key : entry.getValue()) {
+                if (key.startsWith("USERNAME_")) {
+                    usernameKey = key;
+                } else if (key.startsWith("PASSWORD_")) {
+                    passwordKey = key;
+                } else if (urlKey == null) {
+                    urlKey = key;
+                }
+            }
+
+            if (urlKey == null) {
+                continue;
+            }
+
+            String name = entry.getKey().toLowerCase().replaceAll("\\s+", "-");
+            name = ALIASES.getOrDefault(name, name);
+            result.put(name, new Tenant(name, dotenv.get(urlKey), dotenv.get(usernameKey), dotenv.get(passwordKey)));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,124 @@
+package com.qa.nal.utils;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.slf4j.*;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+// Workbooks parsed once per JVM with the streaming XSSF event API; sheets are cached as immutable columns
+public class TestDataRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(TestDataRepository.class);
+
+    public static final String SR_DESCRIPTIONS = "src/test/resources/srDescriptions.xlsx";
+    public static final String INF_OBS_NAMES = "src/test/resources/InfObsNames.xlsx";
+
+    // workbook -> sheet -> column index -> non-blank values below the header row
+    private static final Map<Path, Map<String, List<List<String>>>> workbooks = new ConcurrentHashMap<>();
+
+    // Column B, as ExcelReader.readDescriptionsFromExcel always read it
+    public static List<String> descriptions(String filePath, String sheetName) {
+        return column(filePath, sheetName, 1);
+    }
+
+    public static String randomDescription(String filePath, String sheetName) {
+        List<String> values = descriptions(filePath, sheetName);
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    public static List<String> column(String filePath, String sheetName, int columnIndex) {
+        Map<String, List<List<String>>> sheets = workbooks.computeIfAbsent(
+                Paths.get(filePath).toAbsolutePath().normalize(),
+                TestDataRepository::parse);
+
+        List<List<String>> columns = sheets.get(sheetName);
+        if (columns == null) {
+            throw new RuntimeException("Sheet '" + sheetName + "' not found.");
+        }
+        return columnIndex < columns.size() ? columns.get(columnIndex) : List.of();
+    }
+
+    private static Map<String, List<List<String>>> parse(Path file) {
+        long start = System.nanoTime();
+        Map<String, List<List<String>>> sheets = new HashMap<>();
+
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+            XSSFReader.SheetIterator iterator = (XSSFReader.SheetIterator) reader.getSheetsData();
+
+            while (iterator.hasNext()) {
+                try (InputStream stream = iterator.next()) {
+                    ColumnCollector collector = new ColumnCollector();
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(
+                            new XSSFSheetXMLHandler(styles, null, strings, collector, new DataFormatter(), false));
+                    parser.parse(new InputSource(stream));
+                    sheets.put(iterator.getSheetName(), collector.columns());
+                }
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Error reading Excel: " + e.getMessage(), e);
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Test data loaded from {} in {}ms: {}", file.getFileName(), elapsedMs, sheets.keySet());
+        return Collections.unmodifiableMap(sheets);
+    }
+
+    private static final class ColumnCollector implements SheetContentsHandler {
+
+        private final List<List<String>> columns = new ArrayList<>();
+        private int currentRow;
+        private int nextColumn;
+
+        @Override
+        public void startRow(int rowNum) {
+            currentRow = rowNum;
+            nextColumn = 0;
+        }
+
+        @Override
+        public void endRow(int rowNum) {}
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : nextColumn;
+            nextColumn = column + 1;
+
+            // Row 0 is the header
+            if (currentRow == 0 || formattedValue == null || formattedValue.trim().isEmpty()) {
+                return;
+            }
+            while (columns.size() <= column) {
+                columns.add(new ArrayList<>());
+            }
+            columns.get(column).add(formattedValue.trim());
+        }
+
+        List<List<String>> columns() {
+            List<List<String>> frozen = new ArrayList<>();
+            for (List<String> column : columns) {
+                frozen.add(List.copyOf(column));
+            }
+            return List.copyOf(frozen);
+        }
+    }
+}
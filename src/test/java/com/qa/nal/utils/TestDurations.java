@@ -0,0 +1,115 @@
+package com.qa.nal.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.file.*;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.slf4j.*;
+
+// Expected test durations for scheduling: the median of the test's recent passing runs in RunHistory, falling back
+// to test-durations.properties for tests (or tenants) without history. A snapshot written once per build gives every
+// shard agent the same numbers, whatever its own history looks like.
+public class TestDurations {
+
+    private static final Logger log = LoggerFactory.getLogger(TestDurations.class);
+
+    private static final String ESTIMATES = "test-durations.properties";
+
+    private static final Properties estimates = load();
+
+    private static final int HISTORY_RUNS = Integer.getInteger("schedule.historyRuns", 10);
+    private static final long HISTORY_DAYS = Long.getLong("schedule.historyDays", 60);
+
+    private static TestDurations shared;
+
+    // tenant|class#method -> median of recent passing runs
+    private final Map<String, Long> measured;
+
+    private TestDurations(Map<String, Long> measured) {
+        this.measured = measured;
+    }
+
+    // From this machine's history; cached for the JVM
+    public static synchronized TestDurations shared() {
+        if (shared == null) {
+            shared = fromHistory();
+        }
+        return shared;
+    }
+
+    public static TestDurations fromHistory() {
+        Map<String, List<Long>> passed = new HashMap<>();
+        for (RunHistory.Entry entry : RunHistory.entries(Instant.now().minus(Duration.ofDays(HISTORY_DAYS)))) {
+            if (entry.passed()) {
+                passed.computeIfAbsent(key(entry.tenant(), entry.test()), k -> new ArrayList<>())
+                        .add(entry.durationMs());
+            }
+        }
+        Map<String, Long> measured = new HashMap<>();
+        passed.forEach((key, durations) -> {
+            List<Long> recent = new ArrayList<>(
+                    durations.subList(Math.max(0, durations.size() - HISTORY_RUNS), durations.size()));
+            Collections.sort(recent);
+            measured.put(key, recent.get(recent.size() / 2));
+        });
+        log.info("Duration history for {} test(s) from {}", measured.size(), RunHistory.DIR);
+        return new TestDurations(measured);
+    }
+
+    public static TestDurations read(Path snapshot) throws IOException {
+        JSONObject json = new JSONObject(Files.readString(snapshot));
+        Map<String, Long> measured = new HashMap<>();
+        for (String key : json.keySet()) {
+            measured.put(key, json.getLong(key));
+        }
+        log.info("Duration snapshot for {} test(s) from {}", measured.size(), snapshot);
+        return new TestDurations(measured);
+    }
+
+    public void write(Path snapshot) throws IOException {
+        Files.createDirectories(snapshot.toAbsolutePath().getParent());
+        Files.writeString(snapshot, new JSONObject(new TreeMap<>(measured)).toString(2));
+    }
+
+    public long estimateMs(Tenant tenant, Method test) {
+        Long median = measured.get(key(tenant.name(), test.getDeclaringClass().getName() + "#" + test.getName()));
+        if (median != null) {
+            return median;
+        }
+        String fallback = estimates.getProperty(test.getName(), estimates.getProperty("default", "5000"));
+        return Long.parseLong(estimates.getProperty(tenant.name() + "." + test.getName(), fallback).trim());
+    }
+
+    public long estimateMs(Tenant tenant, List<Method> tests) {
+        return tests.stream().mapToLong(test -> estimateMs(tenant, test)).sum();
+    }
+
+    // The whole @Test set of a class run in one go
+    public long estimateMs(Tenant tenant, Class<?> testClass) {
+        return Arrays.stream(testClass.getDeclaredMethods())
+                .filter(method -> method.isAnnotationPresent(Test.class))
+                .mapToLong(test -> estimateMs(tenant, test))
+                .sum();
+    }
+
+    private static String key(String tenant, String test) {
+        return tenant + "|" + test;
+    }
+
+    private static Properties load() {
+        Properties properties = new Properties();
+        try (InputStream in = TestDurations.class.getClassLoader().getResourceAsStream(ESTIMATES)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Error reading " + ESTIMATES + ": " + e.getMessage(), e);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,180 @@
+package com.qa.nal.utils;
+
+import io.qase.commons.annotation.QaseId;
+import io.qase.commons.annotation.QaseTitle;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.json.*;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.slf4j.*;
+
+// Registered through META-INF/services, so surefire and SuiteLauncher runs both record their results. Each finished
+// test is appended to the Qase spool (QaseSpool uploads in the background) and buffered for RunHistory, which is
+// written once per test plan. Tests passed to suppress() still run on this thread but are not reported. Only the UI
+// suite (FailureCapture.Source classes, i.e. BaseTest) and @QaseId methods are reported at all, so unit tests of the
+// utilities stay out of Qase and the run history.
+public class TestResultListener implements TestExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TestResultListener.class);
+
+    private final Map<String, Long> started = new ConcurrentHashMap<>();
+
+    // In-process consumers of every result (e.g. SoakRunner), called on the thread that ran the test
+    private static final List<Consumer<JSONObject>> subscribers = new CopyOnWriteArrayList<>();
+
+    public static void subscribe(Consumer<JSONObject> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public static void unsubscribe(Consumer<JSONObject> subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    // Tests this thread runs but must not report, e.g. a branch's rerun setup chain (see SuiteLauncher)
+    private static final ThreadLocal<Set<Method>> suppressed = ThreadLocal.withInitial(Set::of);
+
+    public static void suppress(Collection<Method> methods) {
+        suppressed.set(Set.copyOf(methods));
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier test) {
+        if (test.isTest()) {
+            started.put(test.getUniqueId(), System.nanoTime());
+            // Anything left over belongs to setup, not to this test
+            Spans.drainSteps();
+            LatencyRecorder.drainThreadCalls();
+            RetryPolicy.drainThreadStats();
+        }
+    }
+
+    @Override
+    public void executionSkipped(TestIdentifier test, String reason) {
+        if (test.isTest() && reported(test)) {
+            JSONObject result = result(test, "skipped", 0).put("comment", reason);
+            publish(result);
+        }
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier test, TestExecutionResult outcome) {
+        if (!test.isTest()) {
+            return;
+        }
+        if (!reported(test)) {
+            started.remove(test.getUniqueId());
+            FailureCapture.takeArtifacts(test.getUniqueId());
+            return;
+        }
+        Long start = started.remove(test.getUniqueId());
+        long timeMs = start == null ? 0 : (System.nanoTime() - start) / 1_000_000;
+
+        String status = switch (outcome.getStatus()) {
+            case SUCCESSFUL -> "passed";
+            case FAILED -> "failed";
+            case ABORTED -> "skipped";
+        };
+        JSONObject result = result(test, status, timeMs);
+        outcome.getThrowable().ifPresent(error -> result.put("stacktrace", stackTrace(error)));
+        result.put("steps", new JSONArray(Spans.drainSteps()));
+        result.put("api", LatencyRecorder.drainThreadCalls());
+        result.put("retries", RetryPolicy.drainThreadStats());
+
+        JSONArray attachments = new JSONArray();
+        for (Path file : FailureCapture.takeArtifacts(test.getUniqueId())) {
+            attachments.put(file.toString());
+        }
+        if (!attachments.isEmpty()) {
+            result.put("attachments", attachments);
+        }
+        publish(result);
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan plan) {
+        // Qase is drained once when the JVM exits, not after every branch's test plan
+        RunHistory.flush();
+    }
+
+    private static boolean reported(TestIdentifier test) {
+        if (!(test.getSource().orElse(null) instanceof MethodSource source)) {
+            return false;
+        }
+        try {
+            Method method = source.getJavaMethod();
+            if (suppressed.get().contains(method)) {
+                return false;
+            }
+            return FailureCapture.Source.class.isAssignableFrom(source.getJavaClass())
+                    || method.isAnnotationPresent(QaseId.class);
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static void publish(JSONObject result) {
+        // Qase can only take results for a case id
+        if (result.has("caseId")) {
+            QaseSpool.append(result);
+        }
+        RunHistory.add(result);
+        for (Consumer<JSONObject> subscriber : subscribers) {
+            subscriber.accept(result);
+        }
+    }
+
+    private static JSONObject result(TestIdentifier test, String status, long timeMs) {
+        JSONObject result = new JSONObject()
+                .put("title", test.getDisplayName())
+                .put("tenant", tenant())
+                .put("status", status)
+                .put("timeMs", timeMs)
+                .put("finishedAt", Instant.now().toString());
+
+        if (test.getSource().orElse(null) instanceof MethodSource source) {
+            try {
+                Method method = source.getJavaMethod();
+                result.put("test", source.getClassName() + "#" + source.getMethodName());
+                QaseId id = method.getAnnotation(QaseId.class);
+                if (id != null) {
+                    result.put("caseId", id.value());
+                }
+                QaseTitle title = method.getAnnotation(QaseTitle.class);
+                if (title != null) {
+                    result.put("title", title.value());
+                }
+            } catch (RuntimeException e) {
+                log.debug("No method for {}: {}", test.getDisplayName(), e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    private static String tenant() {
+        try {
+            return TenantRegistry.current().name();
+        } catch (RuntimeException e) {
+            return "unknown";
+        }
+    }
+
+    private static String stackTrace(Throwable error) {
+        StringWriter out = new StringWriter();
+        error.printStackTrace(new PrintWriter(out));
+        return out.toString();
+    }
+}
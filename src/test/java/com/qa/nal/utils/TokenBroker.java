@@ -0,0 +1,126 @@
+package com.qa.nal.utils;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import org.json.JSONObject;
+import org.slf4j.*;
+
+// Process-wide auth tokens for /security/user/authenticate, one per backend and user, refreshed just before `exp`
+public class TokenBroker {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenBroker.class);
+
+    // Refresh this long before the token's own expiry
+    private static final long REFRESH_SKEW_SECONDS = Long.getLong("token.refreshSkewSeconds", 60);
+
+    // Lifetime assumed when the token isn't a JWT with an `exp` claim
+    private static final long DEFAULT_TTL_SECONDS = Long.getLong("token.ttlSeconds", 1800);
+
+    private static final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+
+    private static final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private static final class Entry {
+        final ReentrantLock lock = new ReentrantLock();
+        volatile String token;
+        volatile long expiresAt;
+
+        boolean fresh() {
+            return token != null && System.currentTimeMillis() / 1000 < expiresAt - REFRESH_SKEW_SECONDS;
+        }
+    }
+
+    // "Bearer ..." for the tenant's backend; parallel callers needing a refresh share a single request
+    public static String token(Tenant tenant) {
+        return token(tenant, BackendMock.apiBaseUrl(tenant), tenant.username(), tenant.password());
+    }
+
+    public static String token(String baseUrl, String username, String password) {
+        return token(null, baseUrl, username, password);
+    }
+
+    private static String token(Tenant tenant, String baseUrl, String username, String password) {
+        if (username == null || password == null) {
+            throw new IllegalStateException("USERNAME or PASSWORD not found in .env file");
+        }
+
+        Entry entry = entries.computeIfAbsent(baseUrl + "|" + username, k -> new Entry());
+        if (entry.fresh()) {
+            return entry.token;
+        }
+
+        entry.lock.lock();
+        try {
+            // Another thread may have refreshed while we waited for the lock
+            if (!entry.fresh()) {
+                authenticate(entry, tenant, baseUrl, username, password);
+            }
+            return entry.token;
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    public static void invalidate(Tenant tenant) {
+        Entry entry = entries.get(BackendMock.apiBaseUrl(tenant) + "|" + tenant.username());
+        if (entry != null) {
+            entry.expiresAt = 0;
+        }
+    }
+
+    private static void authenticate(Entry entry, Tenant tenant, String baseUrl, String username, String password) {
+        String loginPayload = new JSONObject().put("userName", username).put("password", password).toString();
+
+        HttpResponse<String> response;
+        long start = System.nanoTime();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/security/user/authenticate"))
+                    .timeout(Duration.ofSeconds(45))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(loginPayload))
+                    .build();
+            response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while authenticating", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Error generating auth token: " + e.getMessage(), e);
+        }
+
+        int status = response.statusCode();
+        BackendMock.record(
+                tenant,
+                "POST",
+                "/security/user/authenticate",
+                loginPayload,
+                status,
+                response.headers().firstValue("authorization").orElse(null),
+                response.body(),
+                System.nanoTime() - start);
+        if (status < 200 || status >= 300) {
+            throw new IllegalStateException(
+                    String.format("Failed to authenticate. Status: %d | Body: %s", status, response.body()));
+        }
+
+        String token = response.headers().firstValue("authorization").orElse(""); // Try header first
+        if (token.isEmpty()) {
+            JSONObject json = new JSONObject(response.body());
+            token = json.optString("token", json.optString("jwtToken", ""));
+        }
+        if (token.isEmpty()) {
+            throw new IllegalStateException("Auth token not found. Body: " + response.body());
+        }
+
+        long exp = Jwt.expiry(token);
+        entry.expiresAt = exp > 0 ? exp : System.currentTimeMillis() / 1000 + DEFAULT_TTL_SECONDS;
+        entry.token = token.startsWith("Bearer ") ? token : "Bearer " + token;
+        long validFor = entry.expiresAt - System.currentTimeMillis() / 1000;
+        log.info("✅ Auth token generated for {} (valid {}s)", username, validFor);
+    }
+}
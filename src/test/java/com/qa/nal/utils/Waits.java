@@ -0,0 +1,154 @@
+package com.qa.nal.utils;
+
+import com.microsoft.playwright.*;
+import com.microsoft.playwright.options.WaitForSelectorState;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import org.slf4j.*;
+
+// Condition-based waits that settle on real page signals instead of fixed page.waitForTimeout() sleeps
+public class Waits {
+
+    private static final Logger log = LoggerFactory.getLogger(Waits.class);
+
+    public static final String LOADING_SCREEN = ".loading-screen-wrapper";
+
+    // How long the DOM must stay unchanged before it counts as quiet
+    private static final int QUIET_MS = Integer.getInteger("waits.quietMs", 200);
+
+    // Per-call budget for settle() relative to the sleep it replaces; at 1 a settle never takes longer than the old
+    // sleep, even on pages that never go quiet (interval polling keeps Angular unstable)
+    private static final double BUDGET_FACTOR = Double.parseDouble(System.getProperty("waits.budgetFactor", "1"));
+
+    // Pause before re-installing the in-page wait after a navigation destroyed the context
+    private static final long RETRY_PAUSE_MS = 50;
+
+    // Installs one MutationObserver per document and reports how long the DOM has been unchanged
+    private static final String DOM_QUIET_JS = """
+            quietMs => {
+                const w = window;
+                if (!w.__qaMutations) {
+                    w.__qaMutations = { last: performance.now() };
+                    new MutationObserver(() => (w.__qaMutations.last = performance.now())).observe(document, {
+                        subtree: true,
+                        childList: true,
+                        attributes: true,
+                        characterData: true,
+                    });
+                }
+                return performance.now() - w.__qaMutations.last >= quietMs;
+            }
+            """;
+
+    private static final String ANGULAR_STABLE_JS = """
+            () => {
+                const testabilities = window.getAllAngularTestabilities;
+                return typeof testabilities !== 'function' || testabilities().every(t => t.isStable());
+            }
+            """;
+
+    private static final String SETTLED_JS = """
+            quietMs => {
+                const loading = document.querySelector('.loading-screen-wrapper');
+                if (loading && loading.getClientRects().length > 0) return false;
+                if (!(%s)()) return false;
+                return (%s)(quietMs);
+            }
+            """.formatted(ANGULAR_STABLE_JS.strip(), DOM_QUIET_JS.strip());
+
+    private static final AtomicLong calls = new AtomicLong();
+    private static final AtomicLong timeouts = new AtomicLong();
+    private static final AtomicLong replacedSleepMs = new AtomicLong();
+    private static final AtomicLong waitedMs = new AtomicLong();
+
+    // Drop-in replacement for page.waitForTimeout(legacySleepMs): returns as soon as the page is settled
+    public static void settle(Page page, int legacySleepMs) {
+        double budget = legacySleepMs * BUDGET_FACTOR;
+        long start = System.nanoTime();
+
+        boolean settled;
+        try (Spans.Span ignored = Spans.open("settle", "wait").arg("replacedMs", legacySleepMs)) {
+            settled = until(page, SETTLED_JS, QUIET_MS, budget);
+        }
+
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        calls.incrementAndGet();
+        replacedSleepMs.addAndGet(legacySleepMs);
+        waitedMs.addAndGet(elapsed);
+        if (!settled) {
+            timeouts.incrementAndGet();
+            log.debug("⚠️ Page not settled within {}ms (replaced {}ms sleep)", (long) budget, legacySleepMs);
+        }
+    }
+
+    // Loading overlay hidden or detached
+    public static boolean loadingHidden(Page page, double budgetMs) {
+        try {
+            page.waitForSelector(
+                    LOADING_SCREEN,
+                    new Page.WaitForSelectorOptions().setState(WaitForSelectorState.HIDDEN).setTimeout(budgetMs));
+            return true;
+        } catch (TimeoutError e) {
+            return false;
+        }
+    }
+
+    public static boolean domQuiet(Page page, int quietMs, double budgetMs) {
+        return until(page, DOM_QUIET_JS, quietMs, budgetMs);
+    }
+
+    public static boolean angularStable(Page page, double budgetMs) {
+        return until(page, ANGULAR_STABLE_JS, null, budgetMs);
+    }
+
+    // Runs the action and waits for the first response whose URL contains urlPart
+    public static Response response(Page page, String urlPart, double budgetMs, Runnable action) {
+        return response(page, r -> r.url().contains(urlPart), budgetMs, action);
+    }
+
+    public static Response response(Page page, Predicate<Response> match, double budgetMs, Runnable action) {
+        return page.waitForResponse(match, new Page.WaitForResponseOptions().setTimeout(budgetMs), action);
+    }
+
+    // Polls the predicate in-page; navigations mid-wait destroy the context, so retry until the budget runs out
+    private static boolean until(Page page, String predicateJs, Object arg, double budgetMs) {
+        long deadline = System.nanoTime() + (long) (budgetMs * 1_000_000);
+        while (true) {
+            double remaining = (deadline - System.nanoTime()) / 1_000_000.0;
+            if (remaining <= 0) {
+                return false;
+            }
+            try {
+                page.waitForFunction(
+                        predicateJs,
+                        arg,
+                        new Page.WaitForFunctionOptions().setTimeout(remaining).setPollingInterval(50));
+                return true;
+            } catch (TimeoutError e) {
+                return false;
+            } catch (PlaywrightException e) {
+                if (page.isClosed()) {
+                    return false;
+                }
+                log.debug("Wait interrupted, retrying: {}", e.getMessage());
+                try {
+                    Thread.sleep(Math.min(RETRY_PAUSE_MS, (long) Math.max(0, remaining)));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+    }
+
+    public static String report() {
+        long saved = replacedSleepMs.get() - waitedMs.get();
+        return String.format(
+                "Waits: %d settle calls | Replaced sleep: %.1fs | Waited: %.1fs | Eliminated: %.1fs | Budget hit: %d",
+                calls.get(),
+                replacedSleepMs.get() / 1000.0,
+                waitedMs.get() / 1000.0,
+                saved / 1000.0,
+                timeouts.get());
+    }
+}